@@ -0,0 +1,101 @@
+package com.insider.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens and disposes incognito-like browser contexts through the Chrome DevTools Target domain
+ * Each context has its own cookies, storage and cache, and takes milliseconds to create
+ */
+public class BrowserContextIsolation {
+    private static final long WINDOW_LOOKUP_TIMEOUT_MILLIS = 5000;
+    
+    private static final AtomicLong contextsOpened = new AtomicLong();
+    private static final AtomicLong totalOpenMillis = new AtomicLong();
+    
+    /**
+     * Create a fresh browser context with one blank page and switch the session to it
+     * @param session - Session attached to the shared browser
+     */
+    public static void open(PooledSession session) {
+        long start = System.currentTimeMillis();
+        WebDriver driver = session.getDriver();
+        HasCdp cdp = (HasCdp) driver;
+        
+        Map<String, Object> context = cdp.executeCdpCommand("Target.createBrowserContext", Map.of("disposeOnDetach", false));
+        String contextId = (String) context.get("browserContextId");
+        Map<String, Object> target = cdp.executeCdpCommand("Target.createTarget",
+            Map.of("url", "about:blank", "browserContextId", contextId));
+        String targetId = (String) target.get("targetId");
+        
+        String windowHandle = findWindowHandle(driver, targetId);
+        driver.switchTo().window(windowHandle);
+        DevToolsSupport.attach(driver, windowHandle);
+        session.setBrowserContextId(contextId);
+        
+        contextsOpened.incrementAndGet();
+        totalOpenMillis.addAndGet(System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * Dispose the session's browser context, closing every page it opened
+     * @param session - Session holding an open context
+     * @return boolean - true if the context was disposed
+     */
+    public static boolean close(PooledSession session) {
+        String contextId = session.getBrowserContextId();
+        if (contextId == null) {
+            return true;
+        }
+        session.setBrowserContextId(null);
+        DevToolsSupport.detach(session.getDriver());
+        try {
+            ((HasCdp) session.getDriver()).executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+            return true;
+        } catch (WebDriverException e) {
+            System.out.println("Failed to dispose browser context " + contextId + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Describe context statistics for reporting
+     * @return String - Count and average creation time
+     */
+    public static String describeStatistics() {
+        long opened = contextsOpened.get();
+        long average = opened == 0 ? 0 : totalOpenMillis.get() / opened;
+        return opened + " contexts, avg " + average + " ms to open";
+    }
+    
+    /**
+     * Find the WebDriver window handle of a DevTools target
+     * ChromeDriver uses the target id as window handle, but a new target may take a moment to register
+     * @param driver - WebDriver instance
+     * @param targetId - DevTools target id
+     * @return String - Window handle
+     */
+    private static String findWindowHandle(WebDriver driver, String targetId) {
+        long deadline = System.currentTimeMillis() + WINDOW_LOOKUP_TIMEOUT_MILLIS;
+        while (true) {
+            for (String handle : driver.getWindowHandles()) {
+                if (handle.equalsIgnoreCase(targetId)) {
+                    return handle;
+                }
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Browser context page " + targetId + " did not appear as a window");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for browser context page", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.insider.driver;
+
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Named browser launch profiles
+ * FAST - headless, fixed viewport, background features disabled, uses chrome-headless-shell when present
+ * DEBUG - headed and maximized for watching a run locally
+ * FIDELITY - closest to a real user's browser, honors browser.headless and browser.maximize
+ */
+public enum BrowserProfile {
+    FAST,
+    DEBUG,
+    FIDELITY;
+    
+    private static final String HEADLESS_SHELL_NAME = "chrome-headless-shell";
+    
+    /**
+     * Get the profile selected by browser.profile, falling back to browser.headless
+     * @return BrowserProfile - Configured profile
+     */
+    public static BrowserProfile fromConfig() {
+        String profileName = ConfigReader.getProperty("browser.profile", "");
+        if (!profileName.isEmpty()) {
+            return valueOf(profileName.toUpperCase());
+        }
+        return ConfigReader.getBooleanProperty("browser.headless", false) ? FAST : FIDELITY;
+    }
+    
+    /**
+     * Build the Chrome options for this profile
+     * @return ChromeOptions - Launch options
+     */
+    public ChromeOptions toChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--disable-notifications");
+        options.addArguments("--disable-popup-blocking");
+        options.setPageLoadTimeout(Duration.ofSeconds(ConfigReader.getIntProperty("page.load.timeout", 30)));
+        
+        switch (this) {
+            case FAST:
+                Path headlessShell = findHeadlessShell();
+                if (headlessShell != null) {
+                    options.setBinary(headlessShell.toFile());
+                    options.addArguments("--headless");
+                } else {
+                    options.addArguments("--headless=new");
+                }
+                options.addArguments("--window-size=" + ConfigReader.getProperty("browser.window.size", "1920,1080"));
+                options.addArguments("--disable-extensions");
+                options.addArguments("--disable-gpu");
+                options.addArguments("--disable-background-networking");
+                options.addArguments("--disable-component-update");
+                options.addArguments("--disable-default-apps");
+                options.addArguments("--disable-sync");
+                options.addArguments("--no-first-run");
+                options.addArguments("--mute-audio");
+                break;
+            case DEBUG:
+                options.addArguments("--start-maximized");
+                break;
+            case FIDELITY:
+            default:
+                if (ConfigReader.getBooleanProperty("browser.headless", false)) {
+                    options.addArguments("--headless=new");
+                    options.addArguments("--window-size=" + ConfigReader.getProperty("browser.window.size", "1920,1080"));
+                } else if (ConfigReader.getBooleanProperty("browser.maximize", true)) {
+                    options.addArguments("--start-maximized");
+                }
+                break;
+        }
+        return options;
+    }
+    
+    /**
+     * Locate the chrome-headless-shell binary from browser.headless.shell.path or the PATH
+     * @return Path - Binary location, or null if not installed
+     */
+    private static Path findHeadlessShell() {
+        String configuredPath = ConfigReader.getProperty("browser.headless.shell.path", "");
+        if (!configuredPath.isEmpty()) {
+            Path path = Paths.get(configuredPath);
+            return Files.isExecutable(path) ? path : null;
+        }
+        String searchPath = System.getenv("PATH");
+        if (searchPath == null) {
+            return null;
+        }
+        for (String directory : searchPath.split(File.pathSeparator)) {
+            Path candidate = Paths.get(directory, HEADLESS_SHELL_NAME);
+            if (Files.isExecutable(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.insider.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Raw DevTools protocol access for pooled sessions
+ * Commands and events are addressed by protocol method name, so nothing depends on the
+ * CDP version bundled with Selenium. DevTools only supports adding listeners, so each event
+ * gets a single listener per connection that fans out to subscriptions which can be closed
+ */
+public class DevToolsSupport {
+    private static final Map<DevTools, Map<String, List<Consumer<Map<String, Object>>>>> routes =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    
+    // Window each pooled session should talk to, and the window its DevTools session is attached to
+    private static final Map<WebDriver, String> targetWindows = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, String> attachedWindows = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /**
+     * Point DevTools commands of a session at a window, e.g. the page of a freshly opened browser context
+     * The DevTools session is re-attached lazily on the next command, so leases that never use
+     * DevTools do not pay for a connection
+     * @param driver - Raw session
+     * @param windowHandle - Window the leased test runs in
+     */
+    public static void attach(WebDriver driver, String windowHandle) {
+        driver = unwrap(driver);
+        if (driver instanceof HasDevTools) {
+            targetWindows.put(driver, windowHandle);
+        }
+    }
+    
+    /**
+     * Detach the DevTools session from its window, before the window or its browser context is disposed
+     * @param driver - Raw session
+     */
+    public static void detach(WebDriver driver) {
+        driver = unwrap(driver);
+        targetWindows.remove(driver);
+        if (attachedWindows.remove(driver) == null) {
+            return;
+        }
+        try {
+            ((HasDevTools) driver).getDevTools().disconnectSession();
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Could not detach DevTools session: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the DevTools connection of a session, attaching to the session's window if needed
+     * @param driver - Session; decorated sessions are unwrapped to the pooled one
+     * @return DevTools - Connection
+     */
+    public static DevTools getDevTools(WebDriver driver) {
+        driver = unwrap(driver);
+        if (!(driver instanceof HasDevTools)) {
+            throw new IllegalStateException("Session does not support DevTools: " + driver.getClass().getSimpleName());
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        String window = targetWindows.get(driver);
+        synchronized (devTools) {
+            if (window == null) {
+                devTools.createSessionIfThereIsNotOne();
+            } else if (!window.equals(attachedWindows.get(driver))) {
+                // A session attached to an earlier lease's window would talk to a closed page
+                if (devTools.getCdpSession() != null) {
+                    devTools.disconnectSession();
+                }
+                devTools.createSession(window);
+                attachedWindows.put(driver, window);
+            }
+        }
+        return devTools;
+    }
+    
+    /**
+     * Send a protocol command
+     * @param driver - Raw session
+     * @param method - Protocol method, e.g. "Tracing.start"
+     * @param params - Command parameters
+     * @return Map - Command result
+     */
+    public static Map<String, Object> send(WebDriver driver, String method, Map<String, Object> params) {
+        return getDevTools(driver).send(new Command<Map<String, Object>>(method, params, input -> input.read(Json.MAP_TYPE)));
+    }
+    
+    /**
+     * Subscribe to a protocol event
+     * @param driver - Raw session
+     * @param event - Protocol event, e.g. "Tracing.tracingComplete"
+     * @param listener - Receives the event parameters on the DevTools thread
+     * @return Subscription - Close to stop receiving events
+     */
+    public static Subscription subscribe(WebDriver driver, String event, Consumer<Map<String, Object>> listener) {
+        DevTools devTools = getDevTools(driver);
+        List<Consumer<Map<String, Object>>> listeners;
+        synchronized (routes) {
+            Map<String, List<Consumer<Map<String, Object>>>> events = routes.computeIfAbsent(devTools, key -> new ConcurrentHashMap<>());
+            listeners = events.get(event);
+            if (listeners == null) {
+                List<Consumer<Map<String, Object>>> created = new CopyOnWriteArrayList<>();
+                events.put(event, created);
+                devTools.addListener(new Event<Map<String, Object>>(event, input -> input.read(Json.MAP_TYPE)),
+                        params -> created.forEach(subscriber -> subscriber.accept(params)));
+                listeners = created;
+            }
+        }
+        listeners.add(listener);
+        List<Consumer<Map<String, Object>>> registered = listeners;
+        return () -> registered.remove(listener);
+    }
+    
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+    
+    /**
+     * Handle to an event subscription
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
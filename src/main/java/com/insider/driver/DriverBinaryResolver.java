@@ -0,0 +1,141 @@
+package com.insider.driver;
+
+import com.insider.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.chrome.ChromeDriverService;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Resolves the chromedriver binary once per JVM
+ * Resolution order: explicit path, pinned path from a previous run, WebDriverManager download
+ */
+public class DriverBinaryResolver {
+    private static final String PIN_PATH_KEY = "chromedriver.path";
+    private static final String PIN_VERSION_KEY = "chromedriver.version";
+    
+    private static Path resolvedPath;
+    private static boolean configuredPath;
+    
+    /**
+     * Resolve the chromedriver binary, reusing the result for the lifetime of the JVM
+     * @return Path - Path to an executable chromedriver
+     */
+    public static synchronized Path resolve() {
+        if (resolvedPath == null) {
+            setResolvedPath(false);
+        }
+        return resolvedPath;
+    }
+    
+    /**
+     * Resolve chromedriver again, skipping the pin, after it failed to start the installed Chrome
+     * An explicitly configured chromedriver is never replaced
+     * @return boolean - true if a different chromedriver was resolved
+     */
+    public static synchronized boolean refresh() {
+        if (configuredPath) {
+            return false;
+        }
+        Path previousPath = resolvedPath;
+        setResolvedPath(true);
+        return !resolvedPath.equals(previousPath);
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static void setResolvedPath(boolean refreshPin) {
+        long start = System.currentTimeMillis();
+        resolvedPath = resolveDriverPath(refreshPin);
+        System.setProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY, resolvedPath.toString());
+        System.out.println("Resolved chromedriver in " + (System.currentTimeMillis() - start) + " ms: " + resolvedPath);
+    }
+    
+    private static Path resolveDriverPath(boolean refreshPin) {
+        // 1st Attempt: Explicit path from -Dwebdriver.chrome.driver or driver.chrome.path
+        // On refresh the system property holds our own earlier result, not a configured path
+        String explicitPath = refreshPin ? "" : System.getProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY,
+            ConfigReader.getProperty("driver.chrome.path", ""));
+        if (!explicitPath.isEmpty()) {
+            configuredPath = true;
+            return requireExecutable(Paths.get(explicitPath), "Configured chromedriver");
+        }
+        
+        // 2nd Attempt: Path pinned by a previous resolution
+        Path pinFile = getPinFile();
+        if (!refreshPin && !ConfigReader.getBooleanProperty("driver.pin.refresh", false)) {
+            Path pinnedPath = readPinnedPath(pinFile);
+            if (pinnedPath != null) {
+                return pinnedPath;
+            }
+        }
+        
+        // 3rd Attempt: WebDriverManager, which may need the network
+        if (ConfigReader.getBooleanProperty("driver.offline", false)) {
+            throw new IllegalStateException("driver.offline=true but no cached chromedriver is pinned at " + pinFile
+                + ". Run once with network access or set driver.chrome.path");
+        }
+        WebDriverManager manager = WebDriverManager.chromedriver()
+            .timeout(ConfigReader.getIntProperty("driver.resolve.timeout", 10));
+        manager.setup();
+        Path downloadedPath = requireExecutable(Paths.get(manager.getDownloadedDriverPath()), "Downloaded chromedriver");
+        writePin(pinFile, downloadedPath, manager.getDownloadedDriverVersion());
+        return downloadedPath;
+    }
+    
+    private static Path getPinFile() {
+        String defaultPinFile = Paths.get(System.getProperty("user.home"), ".cache", "selenium", "insider-chromedriver.pin").toString();
+        return Paths.get(ConfigReader.getProperty("driver.pin.file", defaultPinFile));
+    }
+    
+    private static Path readPinnedPath(Path pinFile) {
+        if (!Files.isRegularFile(pinFile)) {
+            return null;
+        }
+        Properties pin = new Properties();
+        try (FileInputStream input = new FileInputStream(pinFile.toFile())) {
+            pin.load(input);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not read driver pin " + pinFile + ": " + e.getMessage());
+            return null;
+        }
+        String pinnedPath = pin.getProperty(PIN_PATH_KEY);
+        if (pinnedPath == null || !Files.isExecutable(Paths.get(pinnedPath))) {
+            System.out.println("Pinned chromedriver is missing, resolving again: " + pinnedPath);
+            return null;
+        }
+        System.out.println("Using pinned chromedriver " + pin.getProperty(PIN_VERSION_KEY, "(unknown version)"));
+        return Paths.get(pinnedPath);
+    }
+    
+    private static void writePin(Path pinFile, Path driverPath, String version) {
+        Properties pin = new Properties();
+        pin.setProperty(PIN_PATH_KEY, driverPath.toAbsolutePath().toString());
+        if (version != null) {
+            pin.setProperty(PIN_VERSION_KEY, version);
+        }
+        try {
+            Files.createDirectories(pinFile.toAbsolutePath().getParent());
+            try (FileOutputStream output = new FileOutputStream(pinFile.toFile())) {
+                pin.store(output, "Pinned chromedriver used by the Insider test suite");
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: Could not pin chromedriver path: " + e.getMessage());
+        }
+    }
+    
+    private static Path requireExecutable(Path path, String description) {
+        if (!Files.isExecutable(path)) {
+            throw new IllegalStateException(description + " is not executable: " + path);
+        }
+        return path;
+    }
+}
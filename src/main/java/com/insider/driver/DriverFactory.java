@@ -0,0 +1,50 @@
+package com.insider.driver;
+
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.time.Duration;
+
+/**
+ * Factory class for creating new browser sessions
+ * Every session attaches to the shared chromedriver process, so a new session only launches a browser
+ * In CONTEXT isolation mode sessions attach to the shared browser and launch nothing at all
+ */
+public class DriverFactory {
+    
+    /**
+     * Create a new session using the profile configured by browser.profile
+     * @return PooledSession - New browser session with its startup time recorded
+     */
+    public static PooledSession createSession() {
+        return createSession(BrowserProfile.fromConfig());
+    }
+    
+    /**
+     * Create a new session using the given launch profile
+     * @param profile - Browser launch profile
+     * @return PooledSession - New browser session with its startup time recorded
+     */
+    public static PooledSession createSession(BrowserProfile profile) {
+        long start = System.currentTimeMillis();
+        ChromeOptions options = IsolationMode.fromConfig() == IsolationMode.CONTEXT
+            ? attachOptions()
+            : profile.toChromeOptions();
+        WebDriver driver = SharedDriverService.newSession(options);
+        long startupMillis = System.currentTimeMillis() - start;
+        System.out.println("Started " + profile + " browser session in " + startupMillis + " ms");
+        return new PooledSession(driver, profile, startupMillis);
+    }
+    
+    /**
+     * Build options that attach a new session to the shared browser
+     * @return ChromeOptions - Options pointing at the shared browser's debugger address
+     */
+    private static ChromeOptions attachOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setExperimentalOption("debuggerAddress", SharedBrowserHost.getDebuggerAddress());
+        options.setPageLoadTimeout(Duration.ofSeconds(ConfigReader.getIntProperty("page.load.timeout", 30)));
+        return options;
+    }
+}
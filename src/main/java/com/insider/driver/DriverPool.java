@@ -0,0 +1,417 @@
+package com.insider.driver;
+
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe pool of browser sessions
+ * Sessions are leased per test, reset between leases and recycled after a number of uses
+ */
+public class DriverPool {
+    private static DriverPool instance;
+
+    private final int maxSessions;
+    private final int maxUsesPerSession;
+    private final long leaseTimeoutSeconds;
+    private final IsolationMode isolationMode;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+    private final Set<PooledSession> leasedSessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private final AtomicInteger pendingWarmups = new AtomicInteger();
+    private volatile int prewarmTarget;
+    private volatile ExecutorService warmupExecutor;
+    private volatile boolean closed;
+
+    // Statistics
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final AtomicLong sessionsReused = new AtomicLong();
+    private final AtomicLong sessionsRecycled = new AtomicLong();
+    private final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong sessionsPrewarmed = new AtomicLong();
+    private final AtomicLong hiddenStartupMillis = new AtomicLong();
+    private final Map<BrowserProfile, LongSummaryStatistics> startupTimes = new EnumMap<>(BrowserProfile.class);
+
+    /**
+     * Constructor for DriverPool
+     * @param maxSessions - Maximum number of live sessions
+     * @param maxUsesPerSession - Number of leases after which a session is recycled
+     * @param leaseTimeoutSeconds - Maximum time to wait for a free session
+     */
+    DriverPool(int maxSessions, int maxUsesPerSession, long leaseTimeoutSeconds) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.maxUsesPerSession = Math.max(1, maxUsesPerSession);
+        this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+        this.isolationMode = IsolationMode.fromConfig();
+        this.permits = new Semaphore(this.maxSessions, true);
+    }
+
+    /**
+     * Get the shared pool, configured from test.properties
+     * The pool never holds fewer sessions than there are test threads
+     * @return DriverPool - Shared pool instance
+     */
+    public static synchronized DriverPool getInstance() {
+        if (instance == null) {
+            int threadCount = ConfigReader.getThreadCount();
+            instance = new DriverPool(
+                Math.max(threadCount, ConfigReader.getIntProperty("driver.pool.size", threadCount)),
+                ConfigReader.getIntProperty("driver.pool.max.uses", 20),
+                ConfigReader.getIntProperty("driver.pool.lease.timeout", 120));
+        }
+        return instance;
+    }
+
+    /**
+     * Lease a session, reusing an idle one when available
+     * @return PooledSession - Session reserved for the caller until release
+     */
+    public PooledSession lease() {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(leaseTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out after " + leaseTimeoutSeconds + "s waiting for a browser session");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+
+        PooledSession session = null;
+        try {
+            session = takeOrCreate(start);
+            long waitNanos = System.nanoTime() - start;
+            if (session.getLeaseCount() > 0) {
+                sessionsReused.incrementAndGet();
+            } else if (session.isPrewarmed()) {
+                // The launch ran in the background, only the part we still waited for was visible
+                hiddenStartupMillis.addAndGet(Math.max(0, session.getStartupMillis() - TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+            }
+            if (isolationMode == IsolationMode.CONTEXT) {
+                BrowserContextIsolation.open(session);
+            } else {
+                DevToolsSupport.attach(session.getDriver(), session.getHomeWindow());
+            }
+            session.markLeased();
+            leasedSessions.add(session);
+            recordLeaseWait(waitNanos);
+            replenish();
+            return session;
+        } catch (RuntimeException e) {
+            // A session that failed to attach or open its context is in an unknown state; don't hand it out again
+            if (session != null) {
+                leasedSessions.remove(session);
+                recycle(session);
+            }
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Start launching sessions in the background and keep that many idle sessions ready ahead of demand
+     * @param count - Number of idle sessions to keep warm, bounded by the pool size
+     */
+    public void prewarm(int count) {
+        if (count <= 0 || closed) {
+            return;
+        }
+        synchronized (this) {
+            if (warmupExecutor == null) {
+                warmupExecutor = Executors.newFixedThreadPool(Math.min(count, maxSessions), runnable -> {
+                    Thread thread = new Thread(runnable, "driver-prewarm");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+        prewarmTarget = Math.min(count, maxSessions);
+        replenish();
+    }
+
+    /**
+     * Return a session to the pool, resetting or recycling it
+     * @param session - Session previously obtained from lease()
+     */
+    public void release(PooledSession session) {
+        if (session == null || !leasedSessions.remove(session)) {
+            return;
+        }
+        try {
+            boolean healthy = isHealthy(session);
+            boolean cleaned = healthy && (isolationMode == IsolationMode.CONTEXT
+                ? BrowserContextIsolation.close(session)
+                : reset(session));
+            if (session.getLeaseCount() >= maxUsesPerSession || !cleaned) {
+                recycle(session);
+            } else {
+                idleSessions.offerFirst(session);
+            }
+        } finally {
+            permits.release();
+        }
+        replenish();
+    }
+
+    /**
+     * Quit every idle and leased session
+     */
+    public void shutdown() {
+        closed = true;
+        if (warmupExecutor != null) {
+            warmupExecutor.shutdownNow();
+        }
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            quitQuietly(session);
+        }
+        for (PooledSession leased : leasedSessions) {
+            quitQuietly(leased);
+        }
+        leasedSessions.clear();
+    }
+
+    /**
+     * Describe pool statistics for reporting
+     * @return Map - Statistic name to value
+     */
+    public Map<String, String> getStatistics() {
+        long leaseCount = leases.get();
+        long averageWaitMillis = leaseCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLeaseWaitNanos.get() / leaseCount);
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("Pool Leases", String.valueOf(leaseCount));
+        statistics.put("Pool Sessions Created", String.valueOf(sessionsCreated.get()));
+        statistics.put("Pool Sessions Reused", String.valueOf(sessionsReused.get()));
+        statistics.put("Pool Sessions Recycled", String.valueOf(sessionsRecycled.get()));
+        statistics.put("Pool Average Lease Wait", averageWaitMillis + " ms");
+        statistics.put("Pool Max Lease Wait", TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get()) + " ms");
+        statistics.put("Pool Sessions Prewarmed", String.valueOf(sessionsPrewarmed.get()));
+        statistics.put("Startup Latency Hidden By Prewarming", hiddenStartupMillis.get() + " ms");
+        statistics.put("Isolation Mode", isolationMode.toString());
+        if (isolationMode == IsolationMode.CONTEXT) {
+            statistics.put("Browser Contexts", BrowserContextIsolation.describeStatistics());
+        }
+        synchronized (startupTimes) {
+            startupTimes.forEach((profile, times) -> statistics.put("Browser Startup (" + profile + ")",
+                String.format("avg %.0f ms, max %d ms over %d sessions", times.getAverage(), times.getMax(), times.getCount())));
+        }
+        return statistics;
+    }
+
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+
+    /**
+     * Take an idle session, wait for one being prewarmed, or launch one inline
+     * @param start - Lease start time in nanoseconds
+     * @return PooledSession - Session to lease
+     */
+    private PooledSession takeOrCreate(long start) {
+        long deadline = start + TimeUnit.SECONDS.toNanos(leaseTimeoutSeconds);
+        while (true) {
+            PooledSession session = idleSessions.pollFirst();
+            if (session != null) {
+                return session;
+            }
+            // Launch inline only when no background launch is already on its way
+            if (pendingWarmups.get() == 0 && tryReserveSlot()) {
+                return createReserved(false);
+            }
+            try {
+                session = idleSessions.pollFirst(50, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+            if (session != null) {
+                return session;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out after " + leaseTimeoutSeconds + "s waiting for a browser session");
+            }
+        }
+    }
+
+    /**
+     * Schedule background launches until the configured number of idle sessions is ready
+     */
+    private void replenish() {
+        ExecutorService executor = warmupExecutor;
+        if (executor == null || closed) {
+            return;
+        }
+        while (idleSessions.size() + pendingWarmups.get() < prewarmTarget && tryReserveSlot()) {
+            pendingWarmups.incrementAndGet();
+            try {
+                executor.execute(this::warmUpSession);
+            } catch (RejectedExecutionException e) {
+                pendingWarmups.decrementAndGet();
+                liveSessions.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void warmUpSession() {
+        try {
+            PooledSession session = createReserved(true);
+            sessionsPrewarmed.incrementAndGet();
+            if (closed) {
+                quitQuietly(session);
+            } else {
+                idleSessions.offerLast(session);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Background browser launch failed: " + e.getMessage());
+        } finally {
+            pendingWarmups.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserve room for one more live session
+     * @return boolean - true if the pool has not reached its size
+     */
+    private boolean tryReserveSlot() {
+        int live;
+        do {
+            live = liveSessions.get();
+            if (live >= maxSessions) {
+                return false;
+            }
+        } while (!liveSessions.compareAndSet(live, live + 1));
+        return true;
+    }
+
+    /**
+     * Launch a session into a slot reserved with tryReserveSlot()
+     * @param prewarmed - true if launched in the background
+     * @return PooledSession - New session
+     */
+    private PooledSession createReserved(boolean prewarmed) {
+        try {
+            PooledSession session = DriverFactory.createSession();
+            session.setPrewarmed(prewarmed);
+            sessionsCreated.incrementAndGet();
+            recordStartup(session);
+            return session;
+        } catch (RuntimeException e) {
+            liveSessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void recordStartup(PooledSession session) {
+        synchronized (startupTimes) {
+            startupTimes.computeIfAbsent(session.getProfile(), profile -> new LongSummaryStatistics())
+                .accept(session.getStartupMillis());
+        }
+    }
+    
+    private void recordLeaseWait(long waitNanos) {
+        leases.incrementAndGet();
+        totalLeaseWaitNanos.addAndGet(waitNanos);
+        maxLeaseWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Check whether a session still responds to commands
+     * @param session - Session to check
+     * @return boolean - true if the browser is alive
+     */
+    private boolean isHealthy(PooledSession session) {
+        try {
+            WebDriver driver = session.getDriver();
+            if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
+                return false;
+            }
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reset a session so the next test starts from a clean browser
+     * Closes extra windows, clears cookies and storage and navigates to about:blank
+     * @param session - Session to reset
+     * @return boolean - true if the reset succeeded
+     */
+    private boolean reset(PooledSession session) {
+        WebDriver driver = session.getDriver();
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            if (!handles.contains(session.getHomeWindow())) {
+                session.setHomeWindow(handles.iterator().next());
+            }
+
+            // Close windows left open by the test (e.g. the Lever redirect tab)
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                clearStorage(driver);
+                if (!handle.equals(session.getHomeWindow())) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(session.getHomeWindow());
+
+            // Clear cookies for every domain, not only the current one
+            driver.manage().deleteAllCookies();
+            if (driver instanceof HasCdp) {
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            }
+
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            System.out.println("Session reset failed, recycling: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void clearStorage(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        } catch (WebDriverException e) {
+            // Pages such as about:blank or error pages have no storage to clear
+        }
+    }
+
+    private void recycle(PooledSession session) {
+        sessionsRecycled.incrementAndGet();
+        quitQuietly(session);
+    }
+
+    private void quitQuietly(PooledSession session) {
+        liveSessions.decrementAndGet();
+        try {
+            session.getDriver().quit();
+        } catch (WebDriverException e) {
+            System.out.println("Failed to quit browser session: " + e.getMessage());
+        }
+    }
+}
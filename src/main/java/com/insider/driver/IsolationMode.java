@@ -0,0 +1,21 @@
+package com.insider.driver;
+
+import com.insider.utils.ConfigReader;
+
+/**
+ * How tests are isolated from each other
+ * SESSION - each pooled session is its own browser process, reset between leases
+ * CONTEXT - sessions attach to one shared browser and every lease gets a fresh browser context
+ */
+public enum IsolationMode {
+    SESSION,
+    CONTEXT;
+    
+    /**
+     * Get the mode selected by driver.isolation
+     * @return IsolationMode - Configured mode, SESSION by default
+     */
+    public static IsolationMode fromConfig() {
+        return valueOf(ConfigReader.getProperty("driver.isolation", "session").toUpperCase());
+    }
+}
@@ -0,0 +1,245 @@
+package com.insider.driver;
+
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Per-lease request blocking and network throttling through the DevTools Fetch and Network domains
+ * Only requests matching network.block.urls or network.block.types are paused; they are failed
+ * unless they also match network.allow.urls. Blocked bytes are estimated from the average size of
+ * requests of the same resource type that were loaded in the session
+ */
+public class NetworkShaping {
+    private static final Map<String, String> RESOURCE_TYPES = Arrays.stream(new String[] {
+            "Document", "Stylesheet", "Image", "Media", "Font", "Script", "TextTrack", "XHR", "Fetch",
+            "EventSource", "WebSocket", "Manifest", "Ping", "Other"})
+            .collect(Collectors.toMap(type -> type.toLowerCase(Locale.ROOT), type -> type));
+    private static final ThreadLocal<Shaping> currentShaping = new ThreadLocal<>();
+    private static final Map<String, AtomicLong> blockedByReason = new ConcurrentHashMap<>();
+    private static final AtomicLong totalBlocked = new AtomicLong();
+    private static final AtomicLong totalBytesSaved = new AtomicLong();
+    
+    /**
+     * Check whether any blocking or throttling is configured
+     * @return boolean - true if network.shaping.enabled is set and a rule or throttle is declared
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("network.shaping.enabled", false)
+                && (!list("network.block.urls").isEmpty() || !list("network.block.types").isEmpty() || isThrottled());
+    }
+    
+    /**
+     * Apply the configured blocking and throttling to the page the session is switched to
+     * Failures are logged and leave the session unshaped
+     * @param driver - Raw (undecorated) session of the test
+     */
+    public static void apply(WebDriver driver) {
+        Shaping shaping = new Shaping(driver);
+        try {
+            shaping.start();
+            currentShaping.set(shaping);
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Network shaping unavailable: " + e.getMessage());
+            shaping.stop();
+        }
+    }
+    
+    /**
+     * Remove blocking and throttling from the current test's session
+     * @return String - Blocked requests and estimated bytes saved during the test, or null when not shaped
+     */
+    public static String finish() {
+        Shaping shaping = currentShaping.get();
+        if (shaping == null) {
+            return null;
+        }
+        currentShaping.remove();
+        shaping.stop();
+        return shaping.blocked.get() == 0 ? null : "Network shaping blocked " + shaping.blocked.get()
+                + " requests, ~" + shaping.bytesSaved.get() / 1024 + " KB saved (" + describe(shaping.byReason) + ")";
+    }
+    
+    /**
+     * Summarise blocked requests of the whole suite for the report dashboard
+     * @return Map - Statistic name to value, empty when nothing was blocked
+     */
+    public static Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        if (totalBlocked.get() > 0) {
+            statistics.put("Blocked Requests", totalBlocked.get() + " (" + describe(blockedByReason) + ")");
+            statistics.put("Bytes Saved (estimated)", totalBytesSaved.get() / 1024 + " KB");
+        }
+        if (isThrottled()) {
+            statistics.put("Network Throttling", ConfigReader.getIntProperty("network.throttle.latency.ms", 0) + " ms latency, "
+                    + ConfigReader.getIntProperty("network.throttle.download.kbps", 0) + " kbps down, "
+                    + ConfigReader.getIntProperty("network.throttle.upload.kbps", 0) + " kbps up");
+        }
+        return statistics;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * Blocking and throttling state of one lease
+     */
+    private static class Shaping {
+        private final WebDriver driver;
+        private final List<Pattern> blockUrls = patterns("network.block.urls");
+        private final List<Pattern> allowUrls = patterns("network.allow.urls");
+        private final List<String> blockTypes = list("network.block.types").stream()
+                .map(type -> RESOURCE_TYPES.getOrDefault(type.toLowerCase(Locale.ROOT), type))
+                .collect(Collectors.toList());
+        private final Map<String, String> requestTypes = new ConcurrentHashMap<>();
+        private final Map<String, long[]> loadedByType = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> byReason = new ConcurrentHashMap<>();
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong bytesSaved = new AtomicLong();
+        private final List<DevToolsSupport.Subscription> subscriptions = new ArrayList<>();
+        
+        Shaping(WebDriver driver) {
+            this.driver = driver;
+        }
+        
+        void start() {
+            // Sizes of loaded requests, used to estimate what the blocked ones would have cost
+            DevToolsSupport.send(driver, "Network.enable", Map.of());
+            subscriptions.add(DevToolsSupport.subscribe(driver, "Network.responseReceived",
+                    params -> requestTypes.put((String) params.get("requestId"), String.valueOf(params.get("type")))));
+            subscriptions.add(DevToolsSupport.subscribe(driver, "Network.loadingFinished", this::onLoaded));
+            
+            if (isThrottled()) {
+                DevToolsSupport.send(driver, "Network.emulateNetworkConditions", Map.of(
+                        "offline", false,
+                        "latency", ConfigReader.getIntProperty("network.throttle.latency.ms", 0),
+                        "downloadThroughput", throughput("network.throttle.download.kbps"),
+                        "uploadThroughput", throughput("network.throttle.upload.kbps")));
+            }
+            
+            // Pause only the candidates for blocking; other requests are never paused
+            List<Map<String, Object>> fetchPatterns = new ArrayList<>();
+            list("network.block.urls").forEach(url -> fetchPatterns.add(Map.of("urlPattern", url, "requestStage", "Request")));
+            blockTypes.forEach(type -> fetchPatterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request")));
+            if (!fetchPatterns.isEmpty()) {
+                subscriptions.add(DevToolsSupport.subscribe(driver, "Fetch.requestPaused", this::onPaused));
+                DevToolsSupport.send(driver, "Fetch.enable", Map.of("patterns", fetchPatterns));
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        private void onPaused(Map<String, Object> params) {
+            String requestId = (String) params.get("requestId");
+            String url = (String) ((Map<String, Object>) params.get("request")).get("url");
+            String type = String.valueOf(params.get("resourceType"));
+            try {
+                if (matches(allowUrls, url)) {
+                    DevToolsSupport.send(driver, "Fetch.continueRequest", Map.of("requestId", requestId));
+                    return;
+                }
+                DevToolsSupport.send(driver, "Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "BlockedByClient"));
+            } catch (RuntimeException e) {
+                // The page navigated away and the request no longer exists
+                return;
+            }
+            String reason = matches(blockUrls, url) ? "url" : type;
+            long estimate = averageSize(type);
+            blocked.incrementAndGet();
+            bytesSaved.addAndGet(estimate);
+            byReason.computeIfAbsent(reason, key -> new AtomicLong()).incrementAndGet();
+            totalBlocked.incrementAndGet();
+            totalBytesSaved.addAndGet(estimate);
+            blockedByReason.computeIfAbsent(reason, key -> new AtomicLong()).incrementAndGet();
+        }
+        
+        private void onLoaded(Map<String, Object> params) {
+            String type = requestTypes.remove((String) params.get("requestId"));
+            Object size = params.get("encodedDataLength");
+            if (type != null && size instanceof Number) {
+                long[] loaded = loadedByType.computeIfAbsent(type, key -> new long[2]);
+                synchronized (loaded) {
+                    loaded[0]++;
+                    loaded[1] += ((Number) size).longValue();
+                }
+            }
+        }
+        
+        private long averageSize(String type) {
+            long[] loaded = loadedByType.get(type);
+            if (loaded == null) {
+                return 0;
+            }
+            synchronized (loaded) {
+                return loaded[0] == 0 ? 0 : loaded[1] / loaded[0];
+            }
+        }
+        
+        void stop() {
+            subscriptions.forEach(DevToolsSupport.Subscription::close);
+            subscriptions.clear();
+            try {
+                DevToolsSupport.send(driver, "Fetch.disable", Map.of());
+                if (isThrottled()) {
+                    DevToolsSupport.send(driver, "Network.emulateNetworkConditions", Map.of(
+                            "offline", false, "latency", 0, "downloadThroughput", -1, "uploadThroughput", -1));
+                }
+                DevToolsSupport.send(driver, "Network.disable", Map.of());
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Could not remove network shaping: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static boolean isThrottled() {
+        return ConfigReader.getIntProperty("network.throttle.latency.ms", 0) > 0
+                || ConfigReader.getIntProperty("network.throttle.download.kbps", 0) > 0
+                || ConfigReader.getIntProperty("network.throttle.upload.kbps", 0) > 0;
+    }
+    
+    /**
+     * DevTools throughput in bytes per second, -1 to leave it unthrottled
+     */
+    private static double throughput(String key) {
+        int kbps = ConfigReader.getIntProperty(key, 0);
+        return kbps > 0 ? kbps * 1024 / 8.0 : -1;
+    }
+    
+    private static List<String> list(String key) {
+        return Arrays.stream(ConfigReader.getProperty(key, "").split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Compile DevTools URL patterns, where * matches any run of characters and ? a single one
+     */
+    private static List<Pattern> patterns(String key) {
+        return list(key).stream()
+                .map(glob -> Pattern.compile(Arrays.stream(glob.split("((?<=[*?])|(?=[*?]))"))
+                        .map(part -> "*".equals(part) ? ".*" : "?".equals(part) ? "." : Pattern.quote(part))
+                        .collect(Collectors.joining())))
+                .collect(Collectors.toList());
+    }
+    
+    private static boolean matches(List<Pattern> patterns, String url) {
+        return patterns.stream().anyMatch(pattern -> pattern.matcher(url).matches());
+    }
+    
+    private static String describe(Map<String, AtomicLong> byReason) {
+        return byReason.entrySet().stream()
+                .map(entry -> ("url".equals(entry.getKey()) ? "URL rules" : entry.getKey()) + " " + entry.getValue().get())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,111 @@
+package com.insider.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A browser session owned by the DriverPool and leased to one test at a time
+ */
+public class PooledSession {
+    private final WebDriver driver;
+    private final BrowserProfile profile;
+    private final long startupMillis;
+    private final long createdAtMillis;
+    private String homeWindow;
+    private int leaseCount;
+    private boolean prewarmed;
+    private String browserContextId;
+    
+    /**
+     * Constructor for PooledSession
+     * @param driver - WebDriver instance backing this session
+     * @param profile - Launch profile the browser was started with
+     * @param startupMillis - Time it took to launch the browser
+     */
+    PooledSession(WebDriver driver, BrowserProfile profile, long startupMillis) {
+        this.driver = driver;
+        this.profile = profile;
+        this.startupMillis = startupMillis;
+        this.createdAtMillis = System.currentTimeMillis();
+        this.homeWindow = driver.getWindowHandle();
+    }
+    
+    /**
+     * Get the WebDriver instance of this session
+     * @return WebDriver - Browser session
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+    
+    /**
+     * Get the launch profile of this session
+     * @return BrowserProfile - Profile the browser was started with
+     */
+    public BrowserProfile getProfile() {
+        return profile;
+    }
+    
+    /**
+     * Get the browser launch time of this session
+     * @return long - Startup time in milliseconds
+     */
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+    
+    /**
+     * Get the window the session was created with
+     * @return String - Window handle kept open between leases
+     */
+    String getHomeWindow() {
+        return homeWindow;
+    }
+    
+    void setHomeWindow(String homeWindow) {
+        this.homeWindow = homeWindow;
+    }
+    
+    /**
+     * Get how many times this session has been leased
+     * @return int - Lease count
+     */
+    public int getLeaseCount() {
+        return leaseCount;
+    }
+    
+    /**
+     * Check whether this session was launched in the background ahead of demand
+     * @return boolean - true if prewarmed
+     */
+    public boolean isPrewarmed() {
+        return prewarmed;
+    }
+    
+    void setPrewarmed(boolean prewarmed) {
+        this.prewarmed = prewarmed;
+    }
+    
+    /**
+     * Get the browser context this session is switched to in CONTEXT isolation mode
+     * @return String - DevTools browser context id, or null if none is open
+     */
+    public String getBrowserContextId() {
+        return browserContextId;
+    }
+    
+    void setBrowserContextId(String browserContextId) {
+        this.browserContextId = browserContextId;
+    }
+    
+    void markLeased() {
+        leaseCount++;
+    }
+    
+    /**
+     * Get the creation time of this session
+     * @return long - Creation time in epoch milliseconds
+     */
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+}
@@ -0,0 +1,107 @@
+package com.insider.driver;
+
+import com.insider.reporting.TraceRecorder;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Times every WebDriver command issued through a decorated session
+ * Accessors that only return local helper objects (manage(), switchTo(), manage().window(), ...)
+ * are not round trips and are skipped; commands on those helpers, such as switchTo().window(handle),
+ * are counted
+ */
+public class RoundTripListener implements WebDriverListener {
+    private static final String PAGES_PACKAGE = "com.insider.pages.";
+    private static final Set<String> DRIVER_ACCESSORS = Set.of("manage", "navigate", "switchTo");
+    private static final Set<String> OPTIONS_ACCESSORS = Set.of("timeouts", "window", "logs");
+    private static final Set<String> LOCAL_CALLS = Set.of(
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    
+    // Decorated calls can nest, so start times are kept on a small per-thread stack
+    private final ThreadLocal<long[]> startTimes = ThreadLocal.withInitial(() -> new long[16]);
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    
+    /**
+     * Wrap a session so all of its commands are accounted
+     * @param driver - Raw session
+     * @return WebDriver - Decorated session for test code
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<WebDriver>(new RoundTripListener()).decorate(driver);
+    }
+    
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        int[] level = depth.get();
+        long[] starts = startTimes.get();
+        if (level[0] < starts.length) {
+            starts[level[0]] = System.nanoTime();
+        }
+        level[0]++;
+    }
+    
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method);
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(target, method);
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private void finish(Object target, Method method) {
+        int[] level = depth.get();
+        int index = --level[0];
+        if (index < 0) {
+            level[0] = 0;
+            return;
+        }
+        if (index >= startTimes.get().length) {
+            return;
+        }
+        long start = startTimes.get()[index];
+        long end = System.nanoTime();
+        if (!isLocalCall(target, method.getName())) {
+            RoundTripStatistics.record(method.getName(), callingPageMethod(), end - start);
+            TraceRecorder.span("webdriver", method.getName(), start, end);
+        }
+    }
+    
+    /**
+     * Check whether a call only returns a helper object, e.g. manage().window() but not switchTo().window(handle)
+     */
+    private static boolean isLocalCall(Object target, String methodName) {
+        if (LOCAL_CALLS.contains(methodName)) {
+            return true;
+        }
+        if (target instanceof WebDriver) {
+            return DRIVER_ACCESSORS.contains(methodName);
+        }
+        if (target instanceof WebDriver.Options) {
+            return OPTIONS_ACCESSORS.contains(methodName);
+        }
+        return false;
+    }
+    
+    /**
+     * Find the innermost page-object method on the calling stack
+     */
+    private static String callingPageMethod() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PAGES_PACKAGE))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(PAGES_PACKAGE.length()) + "." + frame.getMethodName())
+                .orElse(null));
+    }
+}
@@ -0,0 +1,114 @@
+package com.insider.driver;
+
+import com.insider.reporting.StepContext;
+import com.insider.utils.ConfigReader;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Suite-wide accounting of WebDriver round trips, fed by {@link RoundTripListener}
+ * Commands are attributed to the step running on the calling thread ({@link StepContext}) and to the
+ * page-object method that issued them
+ */
+public class RoundTripStatistics {
+    private static final String NO_STEP = "(outside steps)";
+    private static final String NO_PAGE_METHOD = "(test code)";
+    
+    private static final ThreadLocal<long[]> threadCommands = ThreadLocal.withInitial(() -> new long[1]);
+    private static final Map<String, Tally> bySteps = new ConcurrentHashMap<>();
+    private static final Map<String, Tally> byPageMethods = new ConcurrentHashMap<>();
+    private static final AtomicLong totalCommands = new AtomicLong();
+    private static final AtomicLong totalNanos = new AtomicLong();
+    
+    /**
+     * Check whether sessions handed to tests are wrapped for round-trip accounting
+     * @return boolean - Value of roundtrip.accounting.enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("roundtrip.accounting.enabled", true);
+    }
+    
+    /**
+     * Get the number of commands the current thread has issued so far
+     * @return long - Running command count, compare two readings to count a step
+     */
+    public static long getThreadCommandCount() {
+        return threadCommands.get()[0];
+    }
+    
+    /**
+     * Summarise the chattiest steps and page-object methods for the report dashboard
+     * @return Map - Entry name to command count and time
+     */
+    public static Map<String, String> getStatistics() {
+        int top = ConfigReader.getIntProperty("roundtrip.report.top", 5);
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("WebDriver Round Trips", totalCommands.get() + " commands, "
+                + totalNanos.get() / 1_000_000 + " ms");
+        int rank = 1;
+        for (Map.Entry<String, Tally> entry : chattiest(byPageMethods, top)) {
+            statistics.put("Chattiest Method #" + rank++ + " - " + entry.getKey(), entry.getValue().describe());
+        }
+        rank = 1;
+        for (Map.Entry<String, Tally> entry : chattiest(bySteps, top)) {
+            statistics.put("Chattiest Step #" + rank++ + " - " + entry.getKey(), entry.getValue().describe());
+        }
+        return statistics;
+    }
+    
+    /**
+     * Record one finished command
+     * @param command - WebDriver method name, e.g. findElement
+     * @param pageMethod - Calling page-object method, or null
+     * @param nanos - Round-trip time
+     */
+    static void record(String command, String pageMethod, long nanos) {
+        threadCommands.get()[0]++;
+        totalCommands.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        String step = StepContext.current();
+        bySteps.computeIfAbsent(step != null ? step : NO_STEP, key -> new Tally()).add(command, nanos);
+        byPageMethods.computeIfAbsent(pageMethod != null ? pageMethod : NO_PAGE_METHOD, key -> new Tally()).add(command, nanos);
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static List<Map.Entry<String, Tally>> chattiest(Map<String, Tally> tallies, int limit) {
+        return tallies.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Tally> entry) -> entry.getValue().count.get()).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Command count and time of one step or page-object method
+     */
+    private static class Tally {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+        private final Map<String, AtomicLong> commands = new ConcurrentHashMap<>();
+        
+        void add(String command, long elapsedNanos) {
+            count.incrementAndGet();
+            nanos.addAndGet(elapsedNanos);
+            commands.computeIfAbsent(command, key -> new AtomicLong()).incrementAndGet();
+        }
+        
+        String describe() {
+            String breakdown = commands.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, AtomicLong> entry) -> entry.getValue().get()).reversed())
+                    .limit(4)
+                    .map(entry -> entry.getKey() + " " + entry.getValue().get())
+                    .collect(Collectors.joining(", "));
+            return count.get() + " commands, " + nanos.get() / 1_000_000 + " ms (" + breakdown + ")";
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.insider.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Map;
+
+/**
+ * Single browser process shared by every session in CONTEXT isolation mode
+ * Sessions attach to it through its DevTools debugger address instead of launching their own browser
+ */
+public class SharedBrowserHost {
+    private static WebDriver hostDriver;
+    private static String debuggerAddress;
+    
+    /**
+     * Get the debugger address of the shared browser, launching it on first use
+     * @return String - host:port of the browser's DevTools endpoint
+     */
+    public static synchronized String getDebuggerAddress() {
+        if (hostDriver == null) {
+            BrowserProfile profile = BrowserProfile.fromConfig();
+            long start = System.currentTimeMillis();
+            hostDriver = SharedDriverService.newSession(profile.toChromeOptions());
+            debuggerAddress = readDebuggerAddress(hostDriver);
+            System.out.println("Started shared " + profile + " browser in " + (System.currentTimeMillis() - start)
+                + " ms, debugger address " + debuggerAddress);
+        }
+        return debuggerAddress;
+    }
+    
+    /**
+     * Quit the shared browser
+     */
+    public static synchronized void shutdown() {
+        if (hostDriver != null) {
+            try {
+                hostDriver.quit();
+            } catch (WebDriverException e) {
+                System.out.println("Failed to quit shared browser: " + e.getMessage());
+            }
+            hostDriver = null;
+            debuggerAddress = null;
+        }
+    }
+    
+    private static String readDebuggerAddress(WebDriver driver) {
+        Object chromeOptions = ((RemoteWebDriver) driver).getCapabilities().getCapability("goog:chromeOptions");
+        if (chromeOptions instanceof Map) {
+            Object address = ((Map<?, ?>) chromeOptions).get("debuggerAddress");
+            if (address != null) {
+                return address.toString();
+            }
+        }
+        throw new IllegalStateException("Shared browser did not report a debuggerAddress capability");
+    }
+}
@@ -0,0 +1,126 @@
+package com.insider.driver;
+
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.net.PortProber;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single long-lived chromedriver process shared by every browser session of the JVM
+ */
+public class SharedDriverService {
+    private static SharedChromeDriverService service;
+    private static boolean shutdownHookRegistered;
+    
+    /**
+     * Start a browser session on the shared service
+     * If the pinned chromedriver no longer supports the installed Chrome, it is resolved again and the session retried once
+     * @param options - Browser launch options
+     * @return WebDriver - New browser session
+     */
+    public static WebDriver newSession(ChromeOptions options) {
+        Path driverPath = DriverBinaryResolver.resolve();
+        try {
+            return new ChromeDriver(getService(), options);
+        } catch (SessionNotCreatedException e) {
+            if (!isVersionMismatch(e) || !restartWithNewDriver(driverPath, e)) {
+                throw e;
+            }
+            return new ChromeDriver(getService(), options);
+        }
+    }
+    
+    /**
+     * Get the shared chromedriver service, starting it on first use
+     * @return ChromeDriverService - Running service
+     */
+    public static synchronized ChromeDriverService getService() {
+        if (service == null || !service.isRunning()) {
+            Path driverPath = DriverBinaryResolver.resolve();
+            int port = PortProber.findFreePort();
+            try {
+                service = new SharedChromeDriverService(driverPath, port);
+                service.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start chromedriver at " + driverPath, e);
+            }
+            if (!shutdownHookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(SharedDriverService::shutdown, "chromedriver-shutdown"));
+                shutdownHookRegistered = true;
+            }
+            System.out.println("Started shared chromedriver service at " + service.getUrl());
+        }
+        return service;
+    }
+    
+    /**
+     * Stop the shared chromedriver process
+     */
+    public static synchronized void shutdown() {
+        if (service != null) {
+            service.stopService();
+            service = null;
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static boolean isVersionMismatch(SessionNotCreatedException e) {
+        return String.valueOf(e.getMessage()).contains("only supports Chrome version");
+    }
+    
+    /**
+     * Replace the chromedriver that failed to start the installed Chrome and restart the service on it
+     * @param failedPath - chromedriver the failed session was started with
+     * @param cause - Session failure, kept as the error if no other chromedriver can be resolved
+     * @return boolean - true if the session should be retried
+     */
+    private static synchronized boolean restartWithNewDriver(Path failedPath, SessionNotCreatedException cause) {
+        if (!failedPath.equals(DriverBinaryResolver.resolve())) {
+            // Another session already replaced it
+            return true;
+        }
+        System.out.println("chromedriver " + failedPath + " does not support the installed Chrome, resolving it again");
+        try {
+            if (!DriverBinaryResolver.refresh()) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+            return false;
+        }
+        shutdown();
+        return true;
+    }
+    
+    /**
+     * ChromeDriverService that survives driver.quit()
+     * ChromeDriver stops its service on quit, which would kill the process for every other session
+     */
+    private static class SharedChromeDriverService extends ChromeDriverService {
+    
+        SharedChromeDriverService(Path executable, int port) throws IOException {
+            super(executable.toFile(), port, Duration.ofSeconds(20), List.of("--port=" + port), Map.of());
+        }
+        
+        @Override
+        public void stop() {
+            // Sessions come and go, the process lives until stopService()
+        }
+        
+        void stopService() {
+            super.stop();
+        }
+    }
+}
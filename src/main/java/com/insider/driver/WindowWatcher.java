@@ -0,0 +1,204 @@
+package com.insider.driver;
+
+import com.insider.reporting.TraceRecorder;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Detects a window or tab opened by the current page, driven by DevTools Target events
+ * Start watching before the click that opens the window, then {@link #await(Duration)} returns
+ * as soon as the new page has committed its first URL. Sessions without DevTools fall back to
+ * a short window-count poll
+ */
+public class WindowWatcher implements AutoCloseable {
+    private static final long POLL_MILLIS = 25;
+    // Watchers of the current test that still hold Target subscriptions
+    private static final ThreadLocal<Set<WindowWatcher>> openWatchers = ThreadLocal.withInitial(HashSet::new);
+    
+    private final WebDriver driver;
+    private final String openerId;
+    private final Set<String> knownHandles = new HashSet<>();
+    private final CompletableFuture<NewWindow> opened = new CompletableFuture<>();
+    private final List<DevToolsSupport.Subscription> subscriptions = new ArrayList<>();
+    private String browserContextId;
+    private boolean eventDriven;
+    private boolean discovering;
+    
+    private WindowWatcher(WebDriver driver) {
+        this.driver = driver;
+        this.openerId = driver.getWindowHandle();
+        driver.getWindowHandles().forEach(handle -> knownHandles.add(handle.toUpperCase(Locale.ROOT)));
+    }
+    
+    /**
+     * Start watching for windows opened from the current window
+     * @param driver - WebDriver instance, switched to the window that will open the new one
+     * @return WindowWatcher - Watcher to await and close
+     */
+    public static WindowWatcher start(WebDriver driver) {
+        WindowWatcher watcher = new WindowWatcher(driver);
+        try {
+            watcher.listen();
+            watcher.eventDriven = true;
+            openWatchers.get().add(watcher);
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Target events unavailable, polling window handles: " + e.getMessage());
+            watcher.close();
+        }
+        return watcher;
+    }
+    
+    /**
+     * Wait for the new window and its first committed URL
+     * @param timeout - Upper bound of the wait
+     * @return NewWindow - Window handle and URL, or null if no window opened in time
+     */
+    public NewWindow await(Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            if (!eventDriven) {
+                return pollForWindow(deadline);
+            }
+            NewWindow window = opened.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            // ChromeDriver may need a moment before it lists the new target as a window
+            String handle = findHandle(window.getHandle(), deadline);
+            return handle == null ? null : new NewWindow(handle, window.getUrl());
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a new window", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to detect new window", e.getCause());
+        } finally {
+            close();
+            TraceRecorder.span("wait", "New window", start, System.nanoTime());
+        }
+    }
+    
+    /**
+     * Close the watchers the current test started but never awaited, e.g. when the click failed
+     */
+    public static void closeAll() {
+        List<WindowWatcher> watchers = new ArrayList<>(openWatchers.get());
+        openWatchers.remove();
+        watchers.forEach(WindowWatcher::close);
+    }
+    
+    /**
+     * Stop listening for Target events and turn target discovery off again for the pooled session
+     */
+    @Override
+    public void close() {
+        openWatchers.get().remove(this);
+        subscriptions.forEach(DevToolsSupport.Subscription::close);
+        subscriptions.clear();
+        if (discovering) {
+            discovering = false;
+            try {
+                DevToolsSupport.send(driver, "Target.setDiscoverTargets", Map.of("discover", false));
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Could not turn off target discovery: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * A window opened by the watched page
+     */
+    public static class NewWindow {
+        private final String handle;
+        private final String url;
+        
+        NewWindow(String handle, String url) {
+            this.handle = handle;
+            this.url = url;
+        }
+        
+        /**
+         * Get the WebDriver window handle of the new window
+         * @return String - Handle to pass to switchTo().window()
+         */
+        public String getHandle() {
+            return handle;
+        }
+        
+        /**
+         * Get the first URL the new window committed
+         * @return String - URL, or null when detected by polling
+         */
+        public String getUrl() {
+            return url;
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    @SuppressWarnings("unchecked")
+    private void listen() {
+        Map<String, Object> own = DevToolsSupport.send(driver, "Target.getTargetInfo", Map.of("targetId", openerId));
+        browserContextId = (String) ((Map<String, Object>) own.get("targetInfo")).get("browserContextId");
+        subscriptions.add(DevToolsSupport.subscribe(driver, "Target.targetCreated", this::onTarget));
+        subscriptions.add(DevToolsSupport.subscribe(driver, "Target.targetInfoChanged", this::onTarget));
+        DevToolsSupport.send(driver, "Target.setDiscoverTargets", Map.of("discover", true));
+        discovering = true;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void onTarget(Map<String, Object> params) {
+        Map<String, Object> info = (Map<String, Object>) params.get("targetInfo");
+        String targetId = String.valueOf(info.get("targetId"));
+        String url = (String) info.get("url");
+        if (!"page".equals(info.get("type")) || knownHandles.contains(targetId.toUpperCase(Locale.ROOT))
+                || url == null || url.isEmpty() || url.equals("about:blank")) {
+            return;
+        }
+        // Links with rel=noopener have no opener id, but still open in the watched page's context
+        if (openerId.equalsIgnoreCase(String.valueOf(info.get("openerId")))
+                || (browserContextId != null && browserContextId.equals(info.get("browserContextId")))) {
+            opened.complete(new NewWindow(targetId, url));
+        }
+    }
+    
+    private String findHandle(String targetId, long deadline) throws InterruptedException {
+        while (true) {
+            for (String handle : driver.getWindowHandles()) {
+                if (handle.equalsIgnoreCase(targetId)) {
+                    return handle;
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                return null;
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+    
+    private NewWindow pollForWindow(long deadline) throws InterruptedException {
+        while (true) {
+            for (String handle : driver.getWindowHandles()) {
+                if (!knownHandles.contains(handle.toUpperCase(Locale.ROOT))) {
+                    return new NewWindow(handle, null);
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                return null;
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+}
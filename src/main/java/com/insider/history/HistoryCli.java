@@ -0,0 +1,98 @@
+package com.insider.history;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Command line queries over the run history store
+ *
+ * Usage:
+ *   runs [count]                          - Recent runs with pass/fail counts
+ *   trend "<step>" [runs] [percentile]    - Percentile duration of a step, e.g. p95 over the last 50 runs
+ *   slower [runs] [thresholdPercent]      - Steps whose median got slower since the previous commit
+ *   roll                                  - Compress the active file into a segment now
+ */
+public class HistoryCli {
+    
+    public static void main(String[] args) {
+        RunHistory history = RunHistory.fromConfig();
+        String command = args.length > 0 ? args[0] : "runs";
+        switch (command) {
+            case "runs":
+                printRuns(history, intArg(args, 1, 20));
+                break;
+            case "trend":
+                if (args.length < 2) {
+                    printUsage();
+                    return;
+                }
+                printTrend(history, args[1], intArg(args, 2, 50), args.length > 3 ? Double.parseDouble(args[3]) : 95);
+                break;
+            case "slower":
+                printSlower(history, intArg(args, 1, 200), args.length > 2 ? Double.parseDouble(args[2]) : 10);
+                break;
+            case "roll":
+                history.rollNow();
+                break;
+            default:
+                printUsage();
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static void printRuns(RunHistory history, int count) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        System.out.printf("%-22s %-20s %-13s %6s %6s%n", "Run", "Started", "Commit", "Pass", "Fail");
+        for (RunRecord run : history.lastRuns(count)) {
+            System.out.printf("%-22s %-20s %-13s %6d %6d%n", run.getRunId(),
+                    format.format(new Date(run.getStartedAtMillis())), run.getCommit(),
+                    run.countTests("PASS"), run.countTests("FAIL"));
+        }
+    }
+    
+    private static void printTrend(RunHistory history, String step, int runs, double percentile) {
+        long[] durations = history.stepDurations(step, runs);
+        if (durations.length == 0) {
+            System.out.println("No samples for step '" + step + "' in the last " + runs + " runs");
+            return;
+        }
+        System.out.println("Step: " + step);
+        System.out.println("Samples: " + durations.length + " (last " + runs + " runs)");
+        System.out.println("p50: " + RunHistory.percentile(durations, 50) + " ms");
+        System.out.printf("p%s: %d ms%n", formatPercentile(percentile), RunHistory.percentile(durations, percentile));
+        System.out.println("max: " + durations[durations.length - 1] + " ms");
+    }
+    
+    private static void printSlower(RunHistory history, int runs, double thresholdPercent) {
+        List<RunHistory.StepChange> changes = history.slowerSinceLastCommit(runs, thresholdPercent);
+        if (changes.isEmpty()) {
+            System.out.println("No step got more than " + thresholdPercent + "% slower since the previous commit");
+            return;
+        }
+        for (RunHistory.StepChange change : changes) {
+            System.out.printf("%+7.1f%%  %6d ms -> %6d ms  %s (%s -> %s)%n", change.getChangePercent(),
+                    change.getBaselineMedianMillis(), change.getCurrentMedianMillis(), change.getStep(),
+                    change.getBaselineCommit(), change.getCurrentCommit());
+        }
+    }
+    
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+    
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+    
+    private static void printUsage() {
+        System.out.println("Usage: HistoryCli <command>");
+        System.out.println("  runs [count]");
+        System.out.println("  trend \"<step>\" [runs] [percentile]");
+        System.out.println("  slower [runs] [thresholdPercent]");
+        System.out.println("  roll");
+    }
+}
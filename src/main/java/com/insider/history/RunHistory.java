@@ -0,0 +1,467 @@
+package com.insider.history;
+
+import com.insider.utils.ConfigReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only store of run, test and step results
+ * New rows go to active.tsv; once it holds history.segment.runs runs, its finished runs are rolled
+ * into a numbered gzip segment, so a query for the last N runs only opens the newest few files.
+ * Rows of runs that are still appending (other shards or forks sharing the directory) stay in
+ * active.tsv until their E row is written, so every run's rows always live in one file
+ *
+ * Row layout (tab separated):
+ *   R  runId  startedAtMillis  commit
+ *   T  runId  test  status  durationMillis
+ *   S  runId  test  step  status  durationMillis
+ *   E  runId  finishedAtMillis
+ */
+public class RunHistory {
+    static final String ACTIVE_FILE = "active.tsv";
+    private static final String LOCK_FILE = "history.lock";
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".tsv.gz";
+    // Runs without an E row that started longer ago than this were killed and are rolled anyway
+    private static final long ABANDONED_RUN_MILLIS = TimeUnit.HOURS.toMillis(24);
+    
+    private final Path directory;
+    private final int runsPerSegment;
+    
+    /**
+     * Constructor for RunHistory
+     * @param directory - Directory holding the store
+     * @param runsPerSegment - Number of runs rolled into each compressed segment
+     */
+    public RunHistory(Path directory, int runsPerSegment) {
+        this.directory = directory;
+        this.runsPerSegment = Math.max(1, runsPerSegment);
+    }
+    
+    /**
+     * Open the store configured by history.dir and history.segment.runs
+     * @return RunHistory - Store
+     */
+    public static RunHistory fromConfig() {
+        return new RunHistory(Paths.get(ConfigReader.getProperty("history.dir", "test-output/history")),
+                ConfigReader.getIntProperty("history.segment.runs", 50));
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    // ================================
+    // WRITING
+    // ================================
+    
+    /**
+     * Register a new run, rolling the active file into a segment first if it is full
+     * @param runId - Unique run id
+     * @param startedAtMillis - Run start time
+     * @param commit - Commit the run was built from
+     */
+    public void startRun(String runId, long startedAtMillis, String commit) {
+        withLock(() -> {
+            if (countRuns(directory.resolve(ACTIVE_FILE)) >= runsPerSegment) {
+                roll();
+            }
+            appendRows(List.of(row("R", runId, String.valueOf(startedAtMillis), commit)));
+        });
+    }
+    
+    /**
+     * Mark a run as finished, so its rows can be rolled into a segment
+     * @param runId - Run id passed to {@link #startRun(String, long, String)}
+     * @param finishedAtMillis - Run end time
+     */
+    public void finishRun(String runId, long finishedAtMillis) {
+        append(List.of(row("E", runId, String.valueOf(finishedAtMillis))));
+    }
+    
+    /**
+     * Append finished rows in one locked write, so concurrent runs never interleave partial lines
+     * @param rows - Rows created with {@link #row(String...)}
+     */
+    public void append(List<String> rows) {
+        if (!rows.isEmpty()) {
+            withLock(() -> appendRows(rows));
+        }
+    }
+    
+    /**
+     * Roll the finished runs of the active file into a new segment regardless of how many runs it holds
+     */
+    public void rollNow() {
+        withLock(this::roll);
+    }
+    
+    /**
+     * Build a row, escaping tabs and line breaks inside values
+     * @param values - Column values
+     * @return String - Row without line terminator
+     */
+    public static String row(String... values) {
+        return Arrays.stream(values)
+                .map(value -> value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' '))
+                .collect(Collectors.joining("\t"));
+    }
+    
+    // ================================
+    // QUERIES
+    // ================================
+    
+    /**
+     * Read the most recent runs, newest last
+     * Only the active file and as many segments as needed are opened
+     * @param count - Maximum number of runs
+     * @return List<RunRecord> - Runs in start order
+     */
+    public List<RunRecord> lastRuns(int count) {
+        Map<String, RunRecord> runs = new LinkedHashMap<>();
+        List<Path> files = new ArrayList<>();
+        files.add(directory.resolve(ACTIVE_FILE));
+        files.addAll(segmentsNewestFirst());
+        
+        List<RunRecord> collected = new ArrayList<>();
+        for (Path file : files) {
+            if (collected.size() >= count) {
+                break;
+            }
+            runs.clear();
+            readFile(file, runs);
+            List<RunRecord> fileRuns = new ArrayList<>(runs.values());
+            Collections.reverse(fileRuns);
+            collected.addAll(fileRuns);
+        }
+        
+        List<RunRecord> result = new ArrayList<>(collected.subList(0, Math.min(count, collected.size())));
+        result.sort(Comparator.comparingLong(RunRecord::getStartedAtMillis));
+        return result;
+    }
+    
+    /**
+     * Collect the durations of a step over the most recent runs
+     * @param stepName - Step name as passed to executeStep
+     * @param runCount - Number of runs to look back
+     * @return long[] - Sorted durations in milliseconds
+     */
+    public long[] stepDurations(String stepName, int runCount) {
+        return lastRuns(runCount).stream()
+                .flatMap(run -> run.getSteps().stream())
+                .filter(step -> step.getStep().equals(stepName))
+                .mapToLong(RunRecord.Result::getDurationMillis)
+                .sorted()
+                .toArray();
+    }
+    
+    /**
+     * Nearest-rank percentile of sorted values
+     * @param sorted - Values in ascending order
+     * @param percentile - Percentile between 0 and 100
+     * @return long - Percentile value, or -1 when there are no values
+     */
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+    }
+    
+    /**
+     * Compare median step durations of the newest commit against the commit before it
+     * @param runCount - Number of runs to look back
+     * @param thresholdPercent - Minimum slowdown to report
+     * @return List<StepChange> - Slower steps, largest slowdown first
+     */
+    public List<StepChange> slowerSinceLastCommit(int runCount, double thresholdPercent) {
+        List<RunRecord> runs = lastRuns(runCount);
+        if (runs.isEmpty()) {
+            return List.of();
+        }
+        String currentCommit = runs.get(runs.size() - 1).getCommit();
+        String baselineCommit = null;
+        for (int i = runs.size() - 1; i >= 0 && baselineCommit == null; i--) {
+            if (!runs.get(i).getCommit().equals(currentCommit)) {
+                baselineCommit = runs.get(i).getCommit();
+            }
+        }
+        if (baselineCommit == null) {
+            return List.of();
+        }
+        
+        Map<String, long[]> current = stepDurationsByCommit(runs, currentCommit);
+        Map<String, long[]> baseline = stepDurationsByCommit(runs, baselineCommit);
+        List<StepChange> changes = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : current.entrySet()) {
+            long[] before = baseline.get(entry.getKey());
+            if (before != null) {
+                StepChange change = new StepChange(entry.getKey(), baselineCommit, percentile(before, 50),
+                        currentCommit, percentile(entry.getValue(), 50));
+                if (change.getChangePercent() >= thresholdPercent) {
+                    changes.add(change);
+                }
+            }
+        }
+        changes.sort(Comparator.comparingDouble(StepChange::getChangePercent).reversed());
+        return changes;
+    }
+    
+    /**
+     * Median duration change of one step between two commits
+     */
+    public static class StepChange {
+        private final String step;
+        private final String baselineCommit;
+        private final long baselineMedianMillis;
+        private final String currentCommit;
+        private final long currentMedianMillis;
+        
+        StepChange(String step, String baselineCommit, long baselineMedianMillis,
+                   String currentCommit, long currentMedianMillis) {
+            this.step = step;
+            this.baselineCommit = baselineCommit;
+            this.baselineMedianMillis = baselineMedianMillis;
+            this.currentCommit = currentCommit;
+            this.currentMedianMillis = currentMedianMillis;
+        }
+        
+        public String getStep() {
+            return step;
+        }
+        
+        public String getBaselineCommit() {
+            return baselineCommit;
+        }
+        
+        public long getBaselineMedianMillis() {
+            return baselineMedianMillis;
+        }
+        
+        public String getCurrentCommit() {
+            return currentCommit;
+        }
+        
+        public long getCurrentMedianMillis() {
+            return currentMedianMillis;
+        }
+        
+        public double getChangePercent() {
+            return baselineMedianMillis == 0 ? 0 : (currentMedianMillis - baselineMedianMillis) * 100.0 / baselineMedianMillis;
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private Map<String, long[]> stepDurationsByCommit(List<RunRecord> runs, String commit) {
+        return runs.stream()
+                .filter(run -> run.getCommit().equals(commit))
+                .flatMap(run -> run.getSteps().stream())
+                .collect(Collectors.groupingBy(RunRecord.Result::getStep, LinkedHashMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), results -> results.stream()
+                                .mapToLong(RunRecord.Result::getDurationMillis).sorted().toArray())));
+    }
+    
+    private void readFile(Path file, Map<String, RunRecord> runs) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = open(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                try {
+                    switch (columns[0]) {
+                        case "R":
+                            runs.put(columns[1], new RunRecord(columns[1], Long.parseLong(columns[2]), columns[3]));
+                            break;
+                        case "T":
+                            addResult(runs, columns[1], false,
+                                    new RunRecord.Result(columns[2], null, columns[3], Long.parseLong(columns[4])));
+                            break;
+                        case "S":
+                            addResult(runs, columns[1], true,
+                                    new RunRecord.Result(columns[2], columns[3], columns[4], Long.parseLong(columns[5])));
+                            break;
+                        default:
+                            break;
+                    }
+                } catch (RuntimeException e) {
+                    // A run killed mid-write can leave a truncated last line
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read run history " + file, e);
+        }
+    }
+    
+    private void addResult(Map<String, RunRecord> runs, String runId, boolean step, RunRecord.Result result) {
+        RunRecord run = runs.get(runId);
+        if (run != null) {
+            (step ? run.getSteps() : run.getTests()).add(result);
+        }
+    }
+    
+    private BufferedReader open(Path file) throws IOException {
+        if (file.getFileName().toString().endsWith(".gz")) {
+            return new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    }
+    
+    private List<Path> segmentsNewestFirst() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(this::isSegment)
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list run history " + directory, e);
+        }
+    }
+    
+    private boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+    
+    private long countRuns(Path file) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> line.startsWith("R\t")).count();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read run history " + file, e);
+        }
+    }
+    
+    private void roll() {
+        Path active = directory.resolve(ACTIVE_FILE);
+        if (!Files.exists(active)) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(active, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read run history " + active, e);
+        }
+        
+        Set<String> openRuns = openRuns(lines);
+        List<String> rolled = new ArrayList<>();
+        List<String> kept = new ArrayList<>();
+        for (String line : lines) {
+            String[] columns = line.split("\t", 3);
+            (columns.length > 1 && openRuns.contains(columns[1]) ? kept : rolled).add(line);
+        }
+        if (rolled.stream().noneMatch(line -> line.startsWith("R\t"))) {
+            return;
+        }
+        
+        List<Path> segments = segmentsNewestFirst();
+        int next = segments.isEmpty() ? 1 : Integer.parseInt(segments.get(0).getFileName().toString()
+                .substring(SEGMENT_PREFIX.length()).replace(SEGMENT_SUFFIX, "")) + 1;
+        Path segment = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, next, SEGMENT_SUFFIX));
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(segment)), StandardCharsets.UTF_8)) {
+            for (String line : rolled) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll run history into " + segment, e);
+        }
+        try {
+            Path temp = directory.resolve(ACTIVE_FILE + ".tmp");
+            Files.write(temp, kept, StandardCharsets.UTF_8);
+            Files.move(temp, active, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rewrite rolled run history " + active, e);
+        }
+        System.out.println("Rolled run history into " + segment.getFileName() + (openRuns.isEmpty() ? ""
+                : ", " + openRuns.size() + " runs still in progress kept in " + ACTIVE_FILE));
+    }
+    
+    /**
+     * Runs started in the active file that have not written their E row yet and are not abandoned
+     */
+    private Set<String> openRuns(List<String> lines) {
+        long abandonedBefore = System.currentTimeMillis() - ABANDONED_RUN_MILLIS;
+        Set<String> open = new HashSet<>();
+        for (String line : lines) {
+            String[] columns = line.split("\t", -1);
+            try {
+                if (columns[0].equals("R") && Long.parseLong(columns[2]) >= abandonedBefore) {
+                    open.add(columns[1]);
+                }
+            } catch (RuntimeException e) {
+                // A run killed mid-write can leave a truncated line
+            }
+        }
+        for (String line : lines) {
+            String[] columns = line.split("\t", -1);
+            if (columns[0].equals("E") && columns.length > 1) {
+                open.remove(columns[1]);
+            }
+        }
+        return open;
+    }
+    
+    private void appendRows(List<String> rows) {
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(ACTIVE_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String row : rows) {
+                writer.write(row);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append run history", e);
+        }
+    }
+    
+    private void withLock(Runnable action) {
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                action.run();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to lock run history " + directory, e);
+        }
+    }
+}
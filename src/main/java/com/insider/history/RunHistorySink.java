@@ -0,0 +1,126 @@
+package com.insider.history;
+
+import com.insider.reporting.ReportEvent;
+import com.insider.reporting.ReportEventSink;
+import com.insider.utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records test and step results of the current run into the {@link RunHistory} store
+ * Rows of a test are buffered until it finishes and then appended in a single write
+ */
+public class RunHistorySink implements ReportEventSink {
+    private final RunHistory history;
+    private final String runId;
+    private final Map<Long, Long> testStartTimes = new HashMap<>();
+    private final Map<Long, List<String>> pendingRows = new HashMap<>();
+    private boolean finished;
+    
+    /**
+     * Constructor for RunHistorySink, registers the run with the store
+     * @param history - History store
+     */
+    public RunHistorySink(RunHistory history) {
+        this.history = history;
+        long startedAt = System.currentTimeMillis();
+        this.runId = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date(startedAt));
+        history.startRun(runId, startedAt, resolveCommit());
+    }
+    
+    public String getRunId() {
+        return runId;
+    }
+    
+    @Override
+    public void accept(ReportEvent event) {
+        switch (event.getType()) {
+            case TEST_STARTED:
+                testStartTimes.put(event.getTestId(), event.getTimestampMillis());
+                pendingRows.put(event.getTestId(), new ArrayList<>());
+                break;
+            case STEP:
+                List<String> rows = pendingRows.get(event.getTestId());
+                if (rows != null) {
+                    rows.add(RunHistory.row("S", runId, event.getTestName(), event.getMessage(),
+                            String.valueOf(event.getStatus()), event.getDetail()));
+                }
+                break;
+            case TEST_FINISHED:
+                Long startedAt = testStartTimes.remove(event.getTestId());
+                List<String> testRows = pendingRows.remove(event.getTestId());
+                if (startedAt != null) {
+                    testRows.add(RunHistory.row("T", runId, event.getTestName(), String.valueOf(event.getStatus()),
+                            String.valueOf(event.getTimestampMillis() - startedAt)));
+                    history.append(testRows);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Mark the run as finished; the report is flushed once, at the end of the suite
+     */
+    @Override
+    public void flush() {
+        if (!finished) {
+            finished = true;
+            history.finishRun(runId, System.currentTimeMillis());
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * Resolve the commit under test from build.commit, GIT_COMMIT or the local .git directory
+     */
+    private static String resolveCommit() {
+        String commit = ConfigReader.getProperty("build.commit");
+        if (commit == null || commit.isEmpty()) {
+            commit = System.getenv("GIT_COMMIT");
+        }
+        if (commit == null || commit.isEmpty()) {
+            commit = readGitHead(Paths.get(".git"));
+        }
+        return commit.length() > 12 ? commit.substring(0, 12) : commit;
+    }
+    
+    private static String readGitHead(Path gitDir) {
+        try {
+            String head = Files.readString(gitDir.resolve("HEAD"), StandardCharsets.UTF_8).trim();
+            if (!head.startsWith("ref: ")) {
+                return head;
+            }
+            String ref = head.substring(5);
+            Path refFile = gitDir.resolve(ref);
+            if (Files.exists(refFile)) {
+                return Files.readString(refFile, StandardCharsets.UTF_8).trim();
+            }
+            Path packedRefs = gitDir.resolve("packed-refs");
+            if (Files.exists(packedRefs)) {
+                for (String line : Files.readAllLines(packedRefs, StandardCharsets.UTF_8)) {
+                    if (line.endsWith(" " + ref)) {
+                        return line.substring(0, line.indexOf(' '));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: Could not read git commit: " + e.getMessage());
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,87 @@
+package com.insider.history;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One suite run read back from the history store, with its test and step results
+ */
+public class RunRecord {
+    private final String runId;
+    private final long startedAtMillis;
+    private final String commit;
+    private final List<Result> tests = new ArrayList<>();
+    private final List<Result> steps = new ArrayList<>();
+    
+    RunRecord(String runId, long startedAtMillis, String commit) {
+        this.runId = runId;
+        this.startedAtMillis = startedAtMillis;
+        this.commit = commit;
+    }
+    
+    public String getRunId() {
+        return runId;
+    }
+    
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+    
+    public String getCommit() {
+        return commit;
+    }
+    
+    public List<Result> getTests() {
+        return tests;
+    }
+    
+    public List<Result> getSteps() {
+        return steps;
+    }
+    
+    /**
+     * Count the tests of this run that ended with the given status
+     * @param status - Status name, e.g. "PASS"
+     * @return long - Number of tests
+     */
+    public long countTests(String status) {
+        return tests.stream().filter(test -> test.getStatus().equalsIgnoreCase(status)).count();
+    }
+    
+    /**
+     * Result of a single test or step
+     */
+    public static class Result {
+        private final String test;
+        private final String step;
+        private final String status;
+        private final long durationMillis;
+        
+        Result(String test, String step, String status, long durationMillis) {
+            this.test = test;
+            this.step = step;
+            this.status = status;
+            this.durationMillis = durationMillis;
+        }
+        
+        public String getTest() {
+            return test;
+        }
+        
+        /**
+         * Get the step name
+         * @return String - Step name, or null for a test result
+         */
+        public String getStep() {
+            return step;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import com.insider.utils.WebDriverUtils;
 import com.insider.utils.ConfigReader;
+import com.insider.utils.NavigationIndex;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class GlobalNavigationBar {
     private WebDriver driver;
@@ -48,6 +51,7 @@ public class GlobalNavigationBar {
      * @param subItemName - Name of the sub-menu item (e.g., "Careers", "About Us")
      */
     public void clickSubMenuItem(String mainTabName, String subItemName) {
+        String previousUrl;
         try {
             // First hover over the main tab to open dropdown
             hoverOverMainTab(mainTabName);
@@ -56,6 +60,7 @@ public class GlobalNavigationBar {
             wait.until(ExpectedConditions.presenceOfElementLocated(getSubMenuItemLocator(subItemName)));
             
             // Click the sub-menu item
+            previousUrl = driver.getCurrentUrl();
             WebElement subItemElement = findElementWithFallback(subItemName, "sub-menu item");
             WebDriverUtils.clickElementWithFallback(driver, subItemElement, subItemName + " sub-menu item");
             
@@ -64,6 +69,7 @@ public class GlobalNavigationBar {
             System.out.println("Failed to click " + subItemName + " from " + mainTabName + " menu: " + e.getMessage());
             throw new RuntimeException("Failed to click " + subItemName + " from " + mainTabName + " menu", e);
         }
+        capturePerformanceAfterNavigation(subItemName, previousUrl);
     }
     
     // ================================
@@ -81,10 +87,23 @@ public class GlobalNavigationBar {
     
     /**
      * Navigate to any page using just sub-menu item
-     * This method will try to find the sub-item under any main tab
+     * The main tab is looked up in the navigation index; if the item is not indexed, or the indexed
+     * tab no longer holds it, every main tab is tried in turn
      * @param subItem - Sub-menu item name
      */
     public void navigateTo(String subItem) {
+        String indexedTab = getNavigationIndex().findMainTab(subItem);
+        if (indexedTab != null) {
+            try {
+                clickSubMenuItem(indexedTab, subItem);
+                System.out.println("Successfully found " + subItem + " under " + indexedTab + " tab (navigation index)");
+                return;
+            } catch (Exception e) {
+                System.out.println("Navigation index is stale for " + subItem + ", searching all tabs...");
+                WebDriverUtils.invalidateNavigationIndex(driver);
+            }
+        }
+        
         // Try to find the sub-item under any main tab
         String[] mainTabs = getAvailableMainTabs();
         for (String mainTab : mainTabs) {
@@ -114,18 +133,44 @@ public class GlobalNavigationBar {
     // HELPER METHODS
     // ================================
     
+    /**
+     * Capture performance metrics of the page opened from the menu, keyed by the sub-item name
+     * (e.g. "Careers" uses perf.budget.careers.*)
+     * @param subItemName - Sub-menu item that was clicked
+     * @param previousUrl - URL before the click
+     */
+    private void capturePerformanceAfterNavigation(String subItemName, String previousUrl) {
+        try {
+            wait.until(ExpectedConditions.not(ExpectedConditions.urlToBe(previousUrl)));
+        } catch (Exception e) {
+            System.out.println("No navigation after clicking " + subItemName + ", skipping performance capture");
+            return;
+        }
+        WebDriverUtils.capturePagePerformance(driver, subItemName.toLowerCase().replaceAll("[^a-z0-9]+", "-"));
+    }
+    
     /**
      * Generic method to find elements with fallback locators
+     * The locator that worked in previous runs is tried first (see LocatorCache)
      * @param elementName - Name of the element to find
      * @param elementType - Type of element (for logging)
      * @return WebElement found
      */
     private WebElement findElementWithFallback(String elementName, String elementType) {
-        By primaryLocator = getPrimaryLocator(elementName);
-        By textLocator = getTextLocator(elementName);
-        By hrefLocator = getHrefLocator(elementName);
+        Map<String, By> strategies = new LinkedHashMap<>();
+        strategies.put("primary", getPrimaryLocator(elementName));
+        strategies.put("text", getTextLocator(elementName));
+        strategies.put("href", getHrefLocator(elementName));
         
-        return WebDriverUtils.findElementWithFallback(wait, primaryLocator, textLocator, hrefLocator, elementName + " " + elementType);
+        return WebDriverUtils.findCachedElement(wait, null, "GlobalNavigationBar", elementName + " " + elementType, strategies, "primary", null);
+    }
+    
+    /**
+     * Get the navigation index of the current site (built once per session)
+     * @return NavigationIndex - Main tab to sub-item to href
+     */
+    private NavigationIndex getNavigationIndex() {
+        return WebDriverUtils.getNavigationIndex(driver, getAvailableMainTabs());
     }
     
     /**
@@ -185,10 +230,19 @@ public class GlobalNavigationBar {
     
     /**
      * Check if a sub-menu item exists
+     * An indexed item is confirmed with one lookup on the live page; the page is searched when the
+     * index misses the item or no longer matches it
      * @param subItemName - Name of the sub-menu item to check
      * @return boolean - true if sub-menu item exists
      */
     public boolean isSubMenuItemPresent(String subItemName) {
+        if (getNavigationIndex().contains(subItemName)) {
+            if (!driver.findElements(getPrimaryLocator(subItemName)).isEmpty()) {
+                return true;
+            }
+            System.out.println("Navigation index is stale for " + subItemName + ", searching the page...");
+            WebDriverUtils.invalidateNavigationIndex(driver);
+        }
         try {
             findElementWithFallback(subItemName, "sub-menu item");
             return true;
@@ -29,6 +29,7 @@ public class HomePage {
      */
     public void navigateToHomePage() {
         driver.get("https://useinsider.com/");
+        WebDriverUtils.capturePagePerformance(driver, "home");
     }
     
     /**
@@ -7,9 +7,13 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.JavascriptExecutor;
+import com.insider.driver.WindowWatcher;
 import com.insider.utils.ConfigReader;
 import com.insider.utils.WebDriverUtils;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class QAJobsPage {
     private WebDriver driver;
@@ -30,7 +34,11 @@ public class QAJobsPage {
     private By departmentOptionClass = By.cssSelector(".job-team");
     private By jobLocationClass = By.cssSelector(".job-location");
     private By anyLinkInJob = By.xpath(".//a[contains(@href, 'jobs.lever.co/useinsider')]");
-
+    private By jobElementItself = By.xpath(".");
+    
+    // Window opened by the last View Role click, awaited by isRedirectedToLeverApplication
+    private WindowWatcher viewRoleWindow;
+    
     // ================================
     // CONSTRUCTOR
     // ================================
@@ -44,7 +52,7 @@ public class QAJobsPage {
         this.driver = driver;
         this.wait = wait;
     }
-
+    
     // ================================
     // WEBELEMENT RETURN METHODS
     // ================================
@@ -75,7 +83,7 @@ public class QAJobsPage {
         scrollToJobList();
         return driver.findElements(jobList);
     }
-
+    
     // ================================
     // ACTION METHODS
     // ================================
@@ -85,8 +93,9 @@ public class QAJobsPage {
      */
     public void navigateToQAJobsPage() {
         driver.get("https://useinsider.com/careers/quality-assurance/");
+        WebDriverUtils.capturePagePerformance(driver, "qa-jobs");
     }
-
+    
     /**
      * Click on the "See all QA jobs" button
      */
@@ -125,7 +134,7 @@ public class QAJobsPage {
             
             // Wait for job positions to load after filtering
             waitForJobPositionsToLoad();
-            
+        
         } catch (Exception e) {
             System.out.println("Location filter failed: " + e.getMessage());
             throw new RuntimeException("Failed to apply location filter", e);
@@ -159,7 +168,7 @@ public class QAJobsPage {
             
             // Wait for job positions to load after filtering
             waitForJobPositionsToLoad();
-            
+        
         } catch (Exception e) {
             System.out.println("Department filter failed: " + e.getMessage());
             throw new RuntimeException("Failed to apply department filter", e);
@@ -186,22 +195,29 @@ public class QAJobsPage {
      * @param jobElement - The job element containing the View Role button
      */
     public void clickViewRoleButton(WebElement jobElement) {
+        // Watch for the Lever tab before clicking so its opening cannot be missed
+        if (viewRoleWindow != null) {
+            viewRoleWindow.close();
+        }
+        viewRoleWindow = WebDriverUtils.watchForNewWindow(driver);
+        
+        // "View Role" button, then any Lever link in the job, then the job element itself;
+        // the link strategy that worked last run is tried first, the job element is never cached
+        Map<String, By> strategies = new LinkedHashMap<>();
+        strategies.put("view-role", viewRoleButton);
+        strategies.put("lever-link", anyLinkInJob);
+        strategies.put("job-element", jobElementItself);
         try {
-            // 1st Attempt: Look for specific "View Role" button
-            WebElement viewRoleBtn = jobElement.findElement(viewRoleButton);
-            WebDriverUtils.clickElementWithFallback(driver, viewRoleBtn, "View Role button");
-        } catch (Exception e) {
-            try {
-                // 2nd Attempt: Look for any link within the job element
-                WebElement anyLink = jobElement.findElement(anyLinkInJob);
-                WebDriverUtils.clickElementWithFallback(driver, anyLink, "Any link in job");
-            } catch (Exception e2) {
-                // 3rd Attempt: Click the entire job element itself
-                WebDriverUtils.clickElementWithFallback(driver, jobElement, "Job element");
-            }
+            WebElement target = WebDriverUtils.findCachedElement(wait, jobElement, "QAJobsPage", "View Role button", strategies, null, "job-element");
+            WebDriverUtils.clickElementWithFallback(driver, target, "View Role button");
+        } catch (RuntimeException e) {
+            // No tab will open, so stop listening for one
+            viewRoleWindow.close();
+            viewRoleWindow = null;
+            throw e;
         }
     }
-
+    
     // ================================
     // VERIFICATION METHODS
     // ================================
@@ -312,7 +328,7 @@ public class QAJobsPage {
     public boolean isRedirectedToLeverApplication() {
         try {
             // Check if we're on a Lever domain
-            String currentUrl = driver.getCurrentUrl();
+            String currentUrl = awaitViewRoleRedirect();
             boolean isLeverDomain = currentUrl.contains("jobs.lever.co");
             
             if (!isLeverDomain) {
@@ -328,11 +344,31 @@ public class QAJobsPage {
             return false;
         }
     }
-
+    
     // ================================
     // PRIVATE HELPER METHODS
     // ================================
     
+    /**
+     * Switch to the tab opened by the last View Role click, if any
+     * @return String - First URL committed by the new tab, or the current URL when no tab opened
+     */
+    private String awaitViewRoleRedirect() {
+        if (viewRoleWindow == null) {
+            return driver.getCurrentUrl();
+        }
+        WindowWatcher.NewWindow window = viewRoleWindow.await(
+            Duration.ofSeconds(ConfigReader.getIntProperty("window.open.timeout", 10)));
+        viewRoleWindow = null;
+        if (window == null) {
+            System.out.println("No new tab opened, checking the current window");
+            return driver.getCurrentUrl();
+        }
+        driver.switchTo().window(window.getHandle());
+        System.out.println("Switched to new tab: " + window.getUrl());
+        return window.getUrl() != null ? window.getUrl() : driver.getCurrentUrl();
+    }
+    
     /**
      * Wait for page and filters to load completely
      */
@@ -361,16 +397,11 @@ public class QAJobsPage {
             wait.until(ExpectedConditions.presenceOfElementLocated(select2Dropdown));
             
             System.out.println("Page and filters loaded successfully");
-            
+        
         } catch (Exception e) {
             System.out.println("Element-based wait failed, using fallback: " + e.getMessage());
-            // Fallback to shorter sleep if element-based waiting fails
-            try {
-                Thread.sleep(3000);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Interrupted while waiting for page to load", ie);
-            }
+            // Fallback: let the page finish rendering, bounded by the old 3 s sleep
+            WebDriverUtils.waitForDomStable(driver, "body", ConfigReader.getIntProperty("dom.stable.quiet.ms", 500), 3000);
         }
     }
     
@@ -446,11 +477,12 @@ public class QAJobsPage {
             // Wait for job positions to be present and visible
             wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".job-list, .position-item, [class*='job'], [class*='position']")));
             
-            // Additional wait to ensure all positions are loaded
-            Thread.sleep(2000);
+            // Wait for the filter request to return, then for the list to stop re-rendering
+            WebDriverUtils.waitForNetworkIdle(driver);
+            WebDriverUtils.waitForDomStable(driver, "#jobs-list");
             
             System.out.println("Job positions loaded successfully");
-            
+        
         } catch (Exception e) {
             System.out.println("Warning: Job positions may not have loaded completely: " + e.getMessage());
             // Don't throw exception, just log warning as this might be expected in some cases
@@ -0,0 +1,81 @@
+package com.insider.reporting;
+
+/**
+ * Declarative rule deciding which screenshot requests are actually captured
+ * Failure screenshots are always captured, whatever the policy
+ */
+public final class CapturePolicy {
+    
+    /**
+     * Capture mode
+     */
+    public enum Mode {
+        ALWAYS,
+        ON_FAILURE,
+        FIRST_AND_LAST,
+        SAMPLED,
+        ON_VISUAL_CHANGE
+    }
+    
+    public static final CapturePolicy ALWAYS = new CapturePolicy(Mode.ALWAYS, 1);
+    public static final CapturePolicy ON_FAILURE = new CapturePolicy(Mode.ON_FAILURE, 1);
+    public static final CapturePolicy FIRST_AND_LAST = new CapturePolicy(Mode.FIRST_AND_LAST, 1);
+    public static final CapturePolicy ON_VISUAL_CHANGE = new CapturePolicy(Mode.ON_VISUAL_CHANGE, 1);
+    
+    private final Mode mode;
+    private final int sampleEvery;
+    
+    private CapturePolicy(Mode mode, int sampleEvery) {
+        this.mode = mode;
+        this.sampleEvery = sampleEvery;
+    }
+    
+    /**
+     * Capture every n-th screenshot request, starting with the first
+     * @param n - Sampling interval
+     * @return CapturePolicy - Sampling policy
+     */
+    public static CapturePolicy sampled(int n) {
+        return new CapturePolicy(Mode.SAMPLED, Math.max(1, n));
+    }
+    
+    /**
+     * Parse a policy such as "always", "on-failure", "first-and-last", "sampled(3)" or "on-visual-change"
+     * @param value - Policy text
+     * @return CapturePolicy - Parsed policy
+     */
+    public static CapturePolicy parse(String value) {
+        String normalized = value.trim().toLowerCase().replace('_', '-');
+        if (normalized.startsWith("sampled")) {
+            String interval = normalized.replaceAll("[^0-9]", "");
+            return sampled(interval.isEmpty() ? 2 : Integer.parseInt(interval));
+        }
+        switch (normalized) {
+            case "always":
+                return ALWAYS;
+            case "on-failure":
+                return ON_FAILURE;
+            case "first-and-last":
+                return FIRST_AND_LAST;
+            case "on-visual-change":
+                return ON_VISUAL_CHANGE;
+            default:
+                throw new IllegalArgumentException("Unknown screenshot policy: " + value);
+        }
+    }
+    
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+    
+    @Override
+    public String toString() {
+        return mode == Mode.SAMPLED
+            ? "sampled(" + sampleEvery + ")"
+            : mode.name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,187 @@
+package com.insider.reporting;
+
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the active CapturePolicy to every screenshot request of the current test thread
+ * Policies resolve from step override, then test method, then test class, then screenshot.policy
+ */
+public class CapturePolicyEngine {
+    
+    // Counts DOM mutations per document so unchanged pages can be detected with one script call
+    private static final String DOM_SIGNATURE_SCRIPT =
+        "if (!window.__captureMutations) { " +
+        "  window.__captureMutations = { count: 0 }; " +
+        "  new MutationObserver(function(m) { window.__captureMutations.count += m.length; })" +
+        "    .observe(document, { subtree: true, childList: true, attributes: true, characterData: true }); " +
+        "} " +
+        "return location.href + '|' + performance.timeOrigin + '|' + window.__captureMutations.count + '|' + window.scrollY;";
+    
+    private static final ThreadLocal<TestCaptureState> state = ThreadLocal.withInitial(() -> new TestCaptureState(CapturePolicy.ALWAYS));
+    
+    private static final AtomicLong capturesTaken = new AtomicLong();
+    private static final AtomicLong capturesSkipped = new AtomicLong();
+    private static final AtomicLong captureNanos = new AtomicLong();
+    private static final AtomicLong probes = new AtomicLong();
+    private static final AtomicLong probeNanos = new AtomicLong();
+    
+    /**
+     * Reset the current thread's capture state for a new test
+     * @param testClass - Test class, checked for @CaptureScreenshots
+     * @param testMethod - Test method, checked for @CaptureScreenshots
+     */
+    public static void beginTest(Class<?> testClass, Method testMethod) {
+        state.set(new TestCaptureState(resolvePolicy(testClass, testMethod)));
+    }
+    
+    /**
+     * Run an action under a different policy, e.g. for a single step
+     * @param policy - Policy to apply while the action runs
+     * @param action - Action to run
+     */
+    public static void withPolicy(CapturePolicy policy, Runnable action) {
+        TestCaptureState current = state.get();
+        current.policies.push(policy);
+        try {
+            action.run();
+        } finally {
+            current.policies.pop();
+        }
+    }
+    
+    /**
+     * Decide whether a screenshot request should be captured
+     * @param driver - WebDriver instance
+     * @param failure - true for failure screenshots, which are always captured and not counted as requests
+     * @return boolean - true if the screenshot should be taken
+     */
+    public static boolean shouldCapture(WebDriver driver, boolean failure) {
+        TestCaptureState current = state.get();
+        if (failure) {
+            // The failure screenshot already shows the final state
+            current.lastRequestSkipped = false;
+            return true;
+        }
+        current.requests++;
+        boolean capture = decide(current, driver);
+        current.lastRequestSkipped = !capture;
+        if (!capture) {
+            capturesSkipped.incrementAndGet();
+        }
+        return capture;
+    }
+    
+    /**
+     * Record the cost of a screenshot that was taken
+     * @param elapsedNanos - Time spent capturing
+     */
+    public static void recordCapture(long elapsedNanos) {
+        capturesTaken.incrementAndGet();
+        captureNanos.addAndGet(elapsedNanos);
+    }
+    
+    /**
+     * Finish the current test's capture state
+     * @return boolean - true if a final screenshot is still owed (first-and-last whose last request was skipped)
+     */
+    public static boolean finishTest() {
+        TestCaptureState current = state.get();
+        state.remove();
+        return current.testPolicy.getMode() == CapturePolicy.Mode.FIRST_AND_LAST && current.lastRequestSkipped;
+    }
+    
+    /**
+     * Describe capture statistics for reporting
+     * @return Map - Statistic name to value
+     */
+    public static Map<String, String> getStatistics() {
+        long taken = capturesTaken.get();
+        long skipped = capturesSkipped.get();
+        long averageNanos = taken == 0 ? 0 : captureNanos.get() / taken;
+        long averageMillis = TimeUnit.NANOSECONDS.toMillis(averageNanos);
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("Screenshot Policy", ConfigReader.getProperty("screenshot.policy", "always"));
+        statistics.put("Screenshots Captured", taken + " (avg " + averageMillis + " ms)");
+        statistics.put("Screenshots Skipped", String.valueOf(skipped));
+        if (probes.get() > 0) {
+            statistics.put("Visual Change Probes", probes.get() + " (" + TimeUnit.NANOSECONDS.toMillis(probeNanos.get()) + " ms)");
+        }
+        // Net of the probes spent deciding; negative when probing costs more than the skipped captures
+        statistics.put("Estimated Capture Time Saved", TimeUnit.NANOSECONDS.toMillis(skipped * averageNanos - probeNanos.get()) + " ms");
+        return statistics;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static boolean decide(TestCaptureState current, WebDriver driver) {
+        CapturePolicy policy = current.policies.peek();
+        switch (policy.getMode()) {
+            case ON_FAILURE:
+                return false;
+            case FIRST_AND_LAST:
+                return current.requests == 1;
+            case SAMPLED:
+                return (current.requests - 1) % policy.getSampleEvery() == 0;
+            case ON_VISUAL_CHANGE:
+                String signature = readDomSignature(driver);
+                boolean changed = signature == null || !signature.equals(current.lastDomSignature);
+                current.lastDomSignature = signature;
+                return changed;
+            case ALWAYS:
+            default:
+                return true;
+        }
+    }
+    
+    private static String readDomSignature(WebDriver driver) {
+        long start = System.nanoTime();
+        try {
+            return (String) ((JavascriptExecutor) driver).executeScript(DOM_SIGNATURE_SCRIPT);
+        } catch (WebDriverException e) {
+            return null;
+        } finally {
+            probes.incrementAndGet();
+            probeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+    
+    private static CapturePolicy resolvePolicy(Class<?> testClass, Method testMethod) {
+        CaptureScreenshots annotation = testMethod != null ? testMethod.getAnnotation(CaptureScreenshots.class) : null;
+        if (annotation == null && testClass != null) {
+            annotation = testClass.getAnnotation(CaptureScreenshots.class);
+        }
+        if (annotation != null) {
+            return CapturePolicy.parse(annotation.value());
+        }
+        return CapturePolicy.parse(ConfigReader.getProperty("screenshot.policy", "always"));
+    }
+    
+    /**
+     * Capture bookkeeping of one test
+     */
+    private static class TestCaptureState {
+        private final CapturePolicy testPolicy;
+        private final Deque<CapturePolicy> policies = new ArrayDeque<>();
+        private int requests;
+        private boolean lastRequestSkipped;
+        private String lastDomSignature;
+        
+        TestCaptureState(CapturePolicy testPolicy) {
+            this.testPolicy = testPolicy;
+            policies.push(testPolicy);
+        }
+    }
+}
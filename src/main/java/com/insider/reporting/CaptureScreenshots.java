@@ -0,0 +1,21 @@
+package com.insider.reporting;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Screenshot capture policy for a test class or test method, overriding screenshot.policy
+ * Example: {@code @CaptureScreenshots("sampled(3)")}
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface CaptureScreenshots {
+    
+    /**
+     * Policy text accepted by CapturePolicy.parse
+     * @return String - Policy
+     */
+    String value();
+}
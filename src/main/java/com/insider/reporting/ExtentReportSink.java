@@ -0,0 +1,112 @@
+package com.insider.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.ExtentColor;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.model.Log;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Applies report events to ExtentReports
+ * ExtentTest instances are only ever touched from the pipeline consumer thread
+ */
+public class ExtentReportSink implements ReportEventSink {
+    private final ExtentReports extent;
+    private final Path reportDirectory;
+    private final Map<Long, ExtentTest> tests = new HashMap<>();
+    
+    /**
+     * Constructor for ExtentReportSink
+     * @param extent - ExtentReports instance to write to
+     * @param reportDirectory - Directory of the HTML report, screenshots are linked relative to it
+     */
+    public ExtentReportSink(ExtentReports extent, Path reportDirectory) {
+        this.extent = extent;
+        this.reportDirectory = reportDirectory.toAbsolutePath();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public void accept(ReportEvent event) {
+        if (event.getType() == ReportEvent.Type.SYSTEM_INFO) {
+            extent.setSystemInfo(event.getMessage(), event.getDetail());
+            return;
+        }
+        if (event.getType() == ReportEvent.Type.TEST_STARTED) {
+            ExtentTest test = extent.createTest(event.getTestName(), event.getMessage());
+            if (event.getDetail() != null) {
+                test.assignCategory(event.getDetail());
+            }
+            test.assignDevice(event.getThreadName());
+            test.getModel().setStartTime(new Date(event.getTimestampMillis()));
+            tests.put(event.getTestId(), test);
+            return;
+        }
+        
+        ExtentTest test = tests.get(event.getTestId());
+        if (test == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case LOG:
+                test.log(event.getStatus(), event.getMessage());
+                break;
+            case LABEL:
+                test.info(MarkupHelper.createLabel(event.getMessage(), ExtentColor.BLUE));
+                break;
+            case EXCEPTION:
+                if (event.getError() != null) {
+                    test.fail(event.getError());
+                } else {
+                    // Replayed from a shard bundle, only the stack trace text survives
+                    test.fail(MarkupHelper.createCodeBlock(event.getMessage()));
+                }
+                break;
+            case SCREENSHOT:
+                // Waits for the background writer, keeping screenshots in step order
+                Path screenshot;
+                try {
+                    screenshot = ((CompletableFuture<Path>) event.getAttachment()).join();
+                } catch (CompletionException e) {
+                    test.log(Status.WARNING, "Failed to save screenshot '" + event.getMessage() + "': " + e.getCause().getMessage());
+                    return;
+                }
+                String relativePath = reportDirectory.relativize(screenshot.toAbsolutePath()).toString().replace('\\', '/');
+                test.addScreenCaptureFromPath(relativePath, event.getMessage());
+                return;
+            case TEST_FINISHED:
+                test.getModel().setEndTime(new Date(event.getTimestampMillis()));
+                tests.remove(event.getTestId());
+                return;
+            default:
+                return;
+        }
+        stampLastLog(test, event.getTimestampMillis());
+    }
+    
+    @Override
+    public void flush() {
+        extent.flush();
+    }
+    
+    /**
+     * Use the time the step happened rather than the time the consumer applied it
+     * @param test - Test that just received a log
+     * @param timestampMillis - Event time
+     */
+    private void stampLastLog(ExtentTest test, long timestampMillis) {
+        List<Log> logs = test.getModel().getLogs();
+        if (!logs.isEmpty()) {
+            logs.get(logs.size() - 1).setTimestamp(new Date(timestampMillis));
+        }
+    }
+}
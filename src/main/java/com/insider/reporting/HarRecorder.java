@@ -0,0 +1,514 @@
+package com.insider.reporting;
+
+import com.insider.driver.DevToolsSupport;
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-test HAR capture of the browser's network traffic, fed by DevTools Network events
+ * Entries are written to the HAR file as soon as a request completes, so memory only holds
+ * requests in flight and the per-step top lists. Response bodies are omitted unless
+ * har.body.max.kb is set, and are then truncated to that size
+ */
+public class HarRecorder {
+    private static final String PAGE_ID = "page_1";
+    private static final String NO_STEP = "(outside steps)";
+    private static final ThreadLocal<TestCapture> currentCapture = new ThreadLocal<>();
+    
+    /**
+     * Check whether tests record a HAR file, set with har.enabled
+     * @return boolean - true if network capture is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("har.enabled", false);
+    }
+    
+    /**
+     * Start capturing the network traffic of the current test
+     * @param driver - Raw (undecorated) session of the test
+     * @param testName - Test name used for the output file
+     */
+    public static void start(WebDriver driver, String testName) {
+        TestCapture capture = new TestCapture(driver, testName, StepContext.holder());
+        try {
+            capture.start();
+            currentCapture.set(capture);
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Network capture unavailable: " + e.getMessage());
+            capture.close();
+        }
+    }
+    
+    /**
+     * Stop capturing, write the remaining entries and close the HAR file
+     * @return Result - HAR file and per-step summary, or null when the test was not captured
+     */
+    public static Result finish() {
+        TestCapture capture = currentCapture.get();
+        if (capture == null) {
+            return null;
+        }
+        currentCapture.remove();
+        return capture.finish();
+    }
+    
+    /**
+     * Written HAR file and the slowest and largest requests of each step
+     */
+    public static class Result {
+        private final Path file;
+        private final List<String> stepSummaries;
+        
+        Result(Path file, List<String> stepSummaries) {
+            this.file = file;
+            this.stepSummaries = stepSummaries;
+        }
+        
+        public Path getFile() {
+            return file;
+        }
+        
+        public List<String> getStepSummaries() {
+            return stepSummaries;
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * A request between requestWillBeSent and loadingFinished or loadingFailed
+     */
+    private static class PendingRequest {
+        private final String requestId;
+        private final String step;
+        private final Map<String, Object> request;
+        private final String resourceType;
+        private final double startTimestamp;
+        private final double wallTime;
+        private Map<String, Object> response;
+        private double endTimestamp;
+        private long transferSize = -1;
+        private String error;
+        private String redirectUrl = "";
+        private boolean incomplete;
+        
+        @SuppressWarnings("unchecked")
+        PendingRequest(Map<String, Object> params, String step) {
+            this.requestId = (String) params.get("requestId");
+            this.step = step != null ? step : NO_STEP;
+            this.request = (Map<String, Object>) params.get("request");
+            this.resourceType = (String) params.get("type");
+            this.startTimestamp = number(params.get("timestamp"));
+            this.wallTime = number(params.get("wallTime"));
+        }
+        
+        String url() {
+            return (String) request.get("url");
+        }
+        
+        double elapsedMillis() {
+            return endTimestamp > startTimestamp ? (endTimestamp - startTimestamp) * 1000 : 0;
+        }
+    }
+    
+    /**
+     * Completed request kept for the per-step top lists
+     */
+    private static class Sample {
+        private final String url;
+        private final double millis;
+        private final long bytes;
+        
+        Sample(PendingRequest request) {
+            this.url = request.url();
+            this.millis = request.elapsedMillis();
+            this.bytes = Math.max(0, request.transferSize);
+        }
+    }
+    
+    /**
+     * Request count, bytes and the top slowest and largest requests of one step
+     */
+    private static class StepNetwork {
+        private final int limit;
+        private final List<Sample> slowest = new ArrayList<>();
+        private final List<Sample> largest = new ArrayList<>();
+        private int requests;
+        private long bytes;
+        
+        StepNetwork(int limit) {
+            this.limit = limit;
+        }
+        
+        void add(Sample sample) {
+            requests++;
+            bytes += sample.bytes;
+            keepTop(slowest, sample, s -> s.millis);
+            keepTop(largest, sample, s -> s.bytes);
+        }
+        
+        private void keepTop(List<Sample> top, Sample sample, ToDoubleFunction<Sample> key) {
+            top.add(sample);
+            top.sort(Comparator.comparingDouble(key).reversed());
+            if (top.size() > limit) {
+                top.remove(top.size() - 1);
+            }
+        }
+        
+        String describe(String step) {
+            StringBuilder summary = new StringBuilder("Network (" + step + "): " + requests + " requests, "
+                    + bytes / 1024 + " KB");
+            summary.append("; slowest: ");
+            slowest.forEach(s -> summary.append(shorten(s.url)).append(' ').append(Math.round(s.millis)).append(" ms, "));
+            summary.setLength(summary.length() - 2);
+            summary.append("; largest: ");
+            largest.forEach(s -> summary.append(shorten(s.url)).append(' ').append(s.bytes / 1024).append(" KB, "));
+            summary.setLength(summary.length() - 2);
+            return summary.toString();
+        }
+        
+        private static String shorten(String url) {
+            int query = url.indexOf('?');
+            String base = query > 0 ? url.substring(0, query) : url;
+            return base.length() > 100 ? base.substring(0, 97) + "..." : base;
+        }
+    }
+    
+    /**
+     * Capture state of one running test
+     */
+    private static class TestCapture {
+        private final WebDriver driver;
+        private final String testName;
+        private final StepContext.Holder steps;
+        private final int bodyLimit = ConfigReader.getIntProperty("har.body.max.kb", 0) * 1024;
+        private final int summaryTop = ConfigReader.getIntProperty("har.summary.top", 3);
+        private final Map<String, PendingRequest> pending = new ConcurrentHashMap<>();
+        private final Map<String, StepNetwork> stepNetworks = new LinkedHashMap<>();
+        private final List<DevToolsSupport.Subscription> subscriptions = new ArrayList<>();
+        private final ExecutorService writerThread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "har-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private Path file;
+        private Writer writer;
+        private JsonOutput output;
+        
+        TestCapture(WebDriver driver, String testName, StepContext.Holder steps) {
+            this.driver = driver;
+            this.testName = testName;
+            this.steps = steps;
+        }
+        
+        void start() {
+            file = Paths.get(ConfigReader.getProperty("har.dir", "test-output/har"),
+                    testName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis() + ".har");
+            try {
+                Files.createDirectories(file.getParent());
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create HAR file " + file, e);
+            }
+            output = new Json().newOutput(writer);
+            output.setPrettyPrint(false);
+            output.beginObject().name("log").beginObject()
+                    .name("version").write("1.2")
+                    .name("creator").write(Map.of("name", "insider-tests", "version", "1.0"))
+                    .name("pages").write(List.of(Map.of(
+                            "startedDateTime", Instant.now().toString(),
+                            "id", PAGE_ID,
+                            "title", testName,
+                            "pageTimings", Map.of())))
+                    .name("entries").beginArray();
+            
+            // Let the browser keep enough of each body for Network.getResponseBody, and no more
+            Map<String, Object> enable = new LinkedHashMap<>();
+            if (bodyLimit > 0) {
+                enable.put("maxResourceBufferSize", bodyLimit * 4);
+                enable.put("maxTotalBufferSize", bodyLimit * 64);
+            }
+            DevToolsSupport.send(driver, "Network.enable", enable);
+            subscriptions.add(DevToolsSupport.subscribe(driver, "Network.requestWillBeSent", this::onRequest));
+            subscriptions.add(DevToolsSupport.subscribe(driver, "Network.responseReceived", this::onResponse));
+            subscriptions.add(DevToolsSupport.subscribe(driver, "Network.loadingFinished", this::onFinished));
+            subscriptions.add(DevToolsSupport.subscribe(driver, "Network.loadingFailed", this::onFailed));
+        }
+        
+        @SuppressWarnings("unchecked")
+        private void onRequest(Map<String, Object> params) {
+            String requestId = (String) params.get("requestId");
+            Map<String, Object> redirectResponse = (Map<String, Object>) params.get("redirectResponse");
+            if (redirectResponse != null) {
+                // A redirect reuses the request id; close the hop that was redirected
+                PendingRequest hop = pending.remove(requestId);
+                if (hop != null) {
+                    hop.response = redirectResponse;
+                    hop.endTimestamp = number(params.get("timestamp"));
+                    hop.transferSize = (long) number(redirectResponse.get("encodedDataLength"));
+                    hop.redirectUrl = (String) ((Map<String, Object>) params.get("request")).get("url");
+                    complete(hop);
+                }
+            }
+            pending.put(requestId, new PendingRequest(params, steps.getStep()));
+        }
+        
+        @SuppressWarnings("unchecked")
+        private void onResponse(Map<String, Object> params) {
+            PendingRequest request = pending.get((String) params.get("requestId"));
+            if (request != null) {
+                request.response = (Map<String, Object>) params.get("response");
+            }
+        }
+        
+        private void onFinished(Map<String, Object> params) {
+            PendingRequest request = pending.remove((String) params.get("requestId"));
+            if (request != null) {
+                request.endTimestamp = number(params.get("timestamp"));
+                request.transferSize = (long) number(params.get("encodedDataLength"));
+                complete(request);
+            }
+        }
+        
+        private void onFailed(Map<String, Object> params) {
+            PendingRequest request = pending.remove((String) params.get("requestId"));
+            if (request != null) {
+                request.endTimestamp = number(params.get("timestamp"));
+                request.error = (String) params.get("errorText");
+                complete(request);
+            }
+        }
+        
+        /**
+         * Hand a finished request to the writer thread; DevTools events arrive on the
+         * connection thread, which must not block on Network.getResponseBody
+         */
+        private void complete(PendingRequest request) {
+            try {
+                writerThread.execute(() -> write(request));
+            } catch (RuntimeException e) {
+                // Events racing with finish() after the writer has stopped
+            }
+        }
+        
+        private void write(PendingRequest request) {
+            String body = request.redirectUrl.isEmpty() && !request.incomplete ? fetchBody(request) : null;
+            synchronized (this) {
+                if (output == null) {
+                    return;
+                }
+                output.write(toEntry(request, body));
+                stepNetworks.computeIfAbsent(request.step, key -> new StepNetwork(summaryTop)).add(new Sample(request));
+            }
+        }
+        
+        private String fetchBody(PendingRequest request) {
+            if (bodyLimit <= 0 || request.response == null || request.error != null
+                    || request.transferSize > bodyLimit * 4L || !isText(mimeType(request))) {
+                return null;
+            }
+            try {
+                Map<String, Object> result = DevToolsSupport.send(driver, "Network.getResponseBody",
+                        Map.of("requestId", request.requestId));
+                String body = (String) result.get("body");
+                if (Boolean.TRUE.equals(result.get("base64Encoded"))) {
+                    body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+                }
+                return body.length() > bodyLimit ? body.substring(0, bodyLimit) : body;
+            } catch (RuntimeException e) {
+                // Evicted from the browser's buffer or not retained for this resource type
+                return null;
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> toEntry(PendingRequest request, String body) {
+            Map<String, Object> response = request.response != null ? request.response : Map.of();
+            double total = request.elapsedMillis();
+            
+            Map<String, Object> harRequest = new LinkedHashMap<>();
+            harRequest.put("method", request.request.get("method"));
+            harRequest.put("url", request.url());
+            harRequest.put("httpVersion", response.getOrDefault("protocol", ""));
+            harRequest.put("cookies", List.of());
+            harRequest.put("headers", headers(request.request.get("headers")));
+            harRequest.put("queryString", List.of());
+            harRequest.put("headersSize", -1);
+            Object postData = request.request.get("postData");
+            harRequest.put("bodySize", postData instanceof String ? ((String) postData).length() : 0);
+            if (postData instanceof String) {
+                String text = (String) postData;
+                harRequest.put("postData", Map.of(
+                        "mimeType", String.valueOf(((Map<String, Object>) request.request.get("headers"))
+                                .getOrDefault("Content-Type", "")),
+                        "text", bodyLimit > 0 && text.length() <= bodyLimit ? text : "(omitted)"));
+            }
+            
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("size", (long) number(response.get("encodedDataLength")));
+            content.put("mimeType", mimeType(request));
+            if (body != null) {
+                content.put("text", body);
+            }
+            Map<String, Object> harResponse = new LinkedHashMap<>();
+            harResponse.put("status", response.getOrDefault("status", 0));
+            harResponse.put("statusText", response.getOrDefault("statusText", ""));
+            harResponse.put("httpVersion", response.getOrDefault("protocol", ""));
+            harResponse.put("cookies", List.of());
+            harResponse.put("headers", headers(response.get("headers")));
+            harResponse.put("content", content);
+            harResponse.put("redirectURL", request.redirectUrl);
+            harResponse.put("headersSize", -1);
+            harResponse.put("bodySize", request.transferSize);
+            
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("pageref", PAGE_ID);
+            entry.put("startedDateTime", Instant.ofEpochMilli((long) (request.wallTime * 1000)).toString());
+            entry.put("time", total);
+            entry.put("request", harRequest);
+            entry.put("response", harResponse);
+            entry.put("cache", Map.of());
+            entry.put("timings", timings(request, (Map<String, Object>) response.get("timing"), total));
+            entry.put("_resourceType", request.resourceType);
+            entry.put("_step", request.step);
+            if (request.error != null) {
+                entry.put("_error", request.error);
+            }
+            if (request.incomplete) {
+                entry.put("_incomplete", true);
+            }
+            return entry;
+        }
+        
+        /**
+         * HAR phases from DevTools ResourceTiming, whose offsets are milliseconds after requestTime
+         */
+        private Map<String, Object> timings(PendingRequest request, Map<String, Object> timing, double total) {
+            Map<String, Object> timings = new LinkedHashMap<>();
+            if (timing == null) {
+                timings.put("send", 0);
+                timings.put("wait", total);
+                timings.put("receive", 0);
+                return timings;
+            }
+            double queued = Math.max(0, (number(timing.get("requestTime")) - request.startTimestamp) * 1000);
+            double sendStart = number(timing.get("sendStart"));
+            double headersEnd = number(timing.get("receiveHeadersEnd"));
+            timings.put("blocked", queued + firstNonNegative(timing, "dnsStart", "connectStart", "sendStart"));
+            timings.put("dns", phase(timing, "dnsStart", "dnsEnd"));
+            timings.put("connect", phase(timing, "connectStart", "connectEnd"));
+            timings.put("ssl", phase(timing, "sslStart", "sslEnd"));
+            timings.put("send", phase(timing, "sendStart", "sendEnd"));
+            timings.put("wait", Math.max(0, headersEnd - number(timing.get("sendEnd"))));
+            timings.put("receive", Math.max(0, total - queued - Math.max(headersEnd, sendStart)));
+            return timings;
+        }
+        
+        Result finish() {
+            subscriptions.forEach(DevToolsSupport.Subscription::close);
+            try {
+                DevToolsSupport.send(driver, "Network.disable", Map.of());
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Could not disable network capture: " + e.getMessage());
+            }
+            // Requests still in flight are written as they stand
+            for (PendingRequest request : pending.values()) {
+                request.incomplete = true;
+                complete(request);
+            }
+            pending.clear();
+            writerThread.shutdown();
+            try {
+                if (!writerThread.awaitTermination(ConfigReader.getIntProperty("har.flush.timeout", 30), TimeUnit.SECONDS)) {
+                    System.out.println("Warning: HAR writer did not finish in time, some entries are missing");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            
+            List<String> summaries = new ArrayList<>();
+            synchronized (this) {
+                stepNetworks.forEach((step, network) -> summaries.add(network.describe(step)));
+                close();
+            }
+            return new Result(file, summaries);
+        }
+        
+        synchronized void close() {
+            writerThread.shutdownNow();
+            if (output == null) {
+                return;
+            }
+            try {
+                output.endArray().endObject().endObject();
+                output.close();
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Failed to close HAR file " + file + ": " + e.getMessage());
+            }
+            output = null;
+        }
+        
+        private String mimeType(PendingRequest request) {
+            Object mimeType = request.response != null ? request.response.get("mimeType") : null;
+            return mimeType != null ? (String) mimeType : "";
+        }
+    }
+    
+    private static boolean isText(String mimeType) {
+        return mimeType.startsWith("text/") || mimeType.contains("json") || mimeType.contains("javascript")
+                || mimeType.contains("xml");
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> headers(Object headers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        if (headers instanceof Map) {
+            ((Map<String, Object>) headers).forEach((name, value) -> list.add(Map.of("name", name, "value", String.valueOf(value))));
+        }
+        return list;
+    }
+    
+    private static double phase(Map<String, Object> timing, String start, String end) {
+        double startValue = number(timing.get(start));
+        double endValue = number(timing.get(end));
+        return startValue >= 0 && endValue >= startValue ? endValue - startValue : -1;
+    }
+    
+    private static double firstNonNegative(Map<String, Object> timing, String... names) {
+        for (String name : names) {
+            double value = number(timing.get(name));
+            if (value >= 0) {
+                return value;
+            }
+        }
+        return 0;
+    }
+    
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+}
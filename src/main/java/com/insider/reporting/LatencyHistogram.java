@@ -0,0 +1,184 @@
+package com.insider.reporting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram with microsecond resolution
+ * Every power of two is split into 16 linear buckets, so any recorded value is known to
+ * within about 6%. Recording only touches atomic counters and never allocates, and two
+ * histograms merge by adding their bucket counts
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+    
+    /**
+     * Record one latency sample
+     * @param nanos - Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+    
+    /**
+     * Add all samples of another histogram to this one
+     * @param other - Histogram to merge
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = other.buckets.get(i);
+            if (bucket != 0) {
+                buckets.addAndGet(i, bucket);
+            }
+        }
+        count.addAndGet(other.count.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+    
+    /**
+     * Copy the histogram with every bucket scaled down, so older samples lose weight
+     * Bucket counts are rounded down, so rare samples drop out first
+     * @param factor - Weight kept, between 0 and 1
+     * @return LatencyHistogram - Scaled copy
+     */
+    public LatencyHistogram decayed(double factor) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int highestIndex = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = (long) (buckets.get(i) * factor);
+            if (bucket != 0) {
+                histogram.buckets.set(i, bucket);
+                histogram.count.addAndGet(bucket);
+                highestIndex = i;
+            }
+        }
+        if (highestIndex >= 0) {
+            histogram.totalMicros.set((long) (getMeanMicros() * (double) histogram.count.get()));
+            histogram.maxMicros.set(Math.min(maxMicros.get(), bucketUpperBound(highestIndex)));
+        }
+        return histogram;
+    }
+    
+    public long getCount() {
+        return count.get();
+    }
+    
+    /**
+     * Get the largest recorded sample
+     * @return long - Maximum in microseconds
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+    
+    /**
+     * Get the mean of all samples
+     * @return long - Mean in microseconds, 0 when empty
+     */
+    public long getMeanMicros() {
+        long samples = count.get();
+        return samples == 0 ? 0 : totalMicros.get() / samples;
+    }
+    
+    /**
+     * Get a percentile of the recorded samples
+     * @param percentile - Percentile between 0 and 100
+     * @return long - Upper bound of the bucket holding the percentile in microseconds, capped at the maximum
+     */
+    public long getPercentileMicros(double percentile) {
+        long samples = count.get();
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * samples));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+    
+    /**
+     * Export the histogram, including its non-empty buckets so exports can be merged later
+     * @return Map - count, total, mean, p50, p90, p99, max (microseconds) and buckets
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", getCount());
+        values.put("totalMicros", totalMicros.get());
+        values.put("meanMicros", getMeanMicros());
+        values.put("p50Micros", getPercentileMicros(50));
+        values.put("p90Micros", getPercentileMicros(90));
+        values.put("p99Micros", getPercentileMicros(99));
+        values.put("maxMicros", getMaxMicros());
+        Map<String, Long> nonEmpty = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = buckets.get(i);
+            if (bucket != 0) {
+                nonEmpty.put(String.valueOf(i), bucket);
+            }
+        }
+        values.put("buckets", nonEmpty);
+        return values;
+    }
+    
+    /**
+     * Rebuild a histogram from {@link #toMap()} output; the export must carry totalMicros
+     * @param values - Exported histogram
+     * @return LatencyHistogram - Histogram with the exported samples
+     */
+    public static LatencyHistogram fromMap(Map<String, Object> values) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> exported = (Map<String, Object>) values.get("buckets");
+        exported.forEach((index, bucket) -> histogram.buckets.set(Integer.parseInt(index), ((Number) bucket).longValue()));
+        long samples = ((Number) values.get("count")).longValue();
+        histogram.count.set(samples);
+        Number total = (Number) values.get("totalMicros");
+        if (total == null) {
+            throw new IllegalArgumentException("Exported histogram has no totalMicros");
+        }
+        histogram.totalMicros.set(total.longValue());
+        histogram.maxMicros.set(((Number) values.get("maxMicros")).longValue());
+        return histogram;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+    
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,212 @@
+package com.insider.reporting;
+
+import com.aventstack.extentreports.Status;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Immutable step event queued by test threads and applied to the report by the pipeline consumer
+ */
+public final class ReportEvent {
+    
+    /**
+     * Kind of report event
+     */
+    public enum Type {
+        TEST_STARTED,
+        LOG,
+        LABEL,
+        EXCEPTION,
+        SCREENSHOT,
+        STEP,
+        TEST_FINISHED,
+        SYSTEM_INFO,
+        BARRIER
+    }
+    
+    private final Type type;
+    private final long testId;
+    private final String testName;
+    private final String threadName;
+    private final long timestampMillis;
+    private final Status status;
+    private final String message;
+    private final String detail;
+    private final Throwable error;
+    private final Object attachment;
+    
+    private ReportEvent(Type type, TestIdentity test, Status status, String message, String detail,
+                        Throwable error, Object attachment) {
+        this(type, test != null ? test.getId() : 0, test != null ? test.getName() : null,
+                Thread.currentThread().getName(), System.currentTimeMillis(), status, message, detail, error, attachment);
+    }
+    
+    private ReportEvent(Type type, long testId, String testName, String threadName, long timestampMillis,
+                        Status status, String message, String detail, Throwable error, Object attachment) {
+        this.type = type;
+        this.testId = testId;
+        this.testName = testName;
+        this.threadName = threadName;
+        this.timestampMillis = timestampMillis;
+        this.status = status;
+        this.message = message;
+        this.detail = detail;
+        this.error = error;
+        this.attachment = attachment;
+    }
+    
+    /**
+     * Create a test start event
+     * @param test - Identity of the new test
+     * @param description - Description of the test
+     * @param category - Category of the test, may be null
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent testStarted(TestIdentity test, String description, String category) {
+        return new ReportEvent(Type.TEST_STARTED, test, null, description, category, null, null);
+    }
+    
+    /**
+     * Create a log event
+     * @param test - Identity of the test
+     * @param status - Log status
+     * @param message - Log message
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent log(TestIdentity test, Status status, String message) {
+        return new ReportEvent(Type.LOG, test, status, message, null, null, null);
+    }
+    
+    /**
+     * Create a highlighted label event
+     * @param test - Identity of the test
+     * @param message - Label text
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent label(TestIdentity test, String message) {
+        return new ReportEvent(Type.LABEL, test, Status.INFO, message, null, null, null);
+    }
+    
+    /**
+     * Create an exception event
+     * @param test - Identity of the test
+     * @param error - Exception to report
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent exception(TestIdentity test, Throwable error) {
+        return new ReportEvent(Type.EXCEPTION, test, Status.FAIL, error.getMessage(), null, error, null);
+    }
+    
+    /**
+     * Create a screenshot event
+     * @param test - Identity of the test
+     * @param title - Screenshot title
+     * @param screenshot - Future path of the screenshot file
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent screenshot(TestIdentity test, String title, CompletableFuture<Path> screenshot) {
+        return new ReportEvent(Type.SCREENSHOT, test, Status.INFO, title, null, null, screenshot);
+    }
+    
+    /**
+     * Create a test finish event
+     * @param test - Identity of the test
+     * @param status - Final status of the test
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent testFinished(TestIdentity test, Status status) {
+        return new ReportEvent(Type.TEST_FINISHED, test, status, null, null, null, null);
+    }
+    
+    /**
+     * Create a step timing event
+     * @param test - Test the step belongs to
+     * @param stepName - Name of the step
+     * @param status - Step outcome
+     * @param durationMillis - Step duration in milliseconds
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent step(TestIdentity test, String stepName, Status status, long durationMillis) {
+        return new ReportEvent(Type.STEP, test, status, stepName, String.valueOf(durationMillis), null, null);
+    }
+    
+    /**
+     * Create a run-level information event
+     * @param name - Entry name
+     * @param value - Entry value
+     * @return ReportEvent - Event
+     */
+    public static ReportEvent systemInfo(String name, String value) {
+        return new ReportEvent(Type.SYSTEM_INFO, null, null, name, value, null, null);
+    }
+    
+    /**
+     * Recreate an event read back from a shard bundle, keeping its original origin and time
+     * @param type - Event type
+     * @param testId - Test id, unique within the merged report
+     * @param testName - Test name
+     * @param threadName - Thread the event was recorded on
+     * @param timestampMillis - Original event time
+     * @param status - Status, or null
+     * @param message - Message, or the stack trace text of an EXCEPTION event
+     * @param detail - Detail, or null
+     * @param attachment - Completed screenshot future, or null
+     * @return ReportEvent - Event
+     */
+    static ReportEvent replay(Type type, long testId, String testName, String threadName, long timestampMillis,
+                              Status status, String message, String detail, Object attachment) {
+        return new ReportEvent(type, testId, testName, threadName, timestampMillis, status, message, detail, null, attachment);
+    }
+    
+    /**
+     * Create a barrier event, released once every earlier event has been applied
+     * @param barrier - Latch to release
+     * @param flushSinks - true to flush every sink before releasing
+     * @return ReportEvent - Event
+     */
+    static ReportEvent barrier(CountDownLatch barrier, boolean flushSinks) {
+        return new ReportEvent(Type.BARRIER, null, null, null, String.valueOf(flushSinks), null, barrier);
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public long getTestId() {
+        return testId;
+    }
+    
+    public String getTestName() {
+        return testName;
+    }
+    
+    public String getThreadName() {
+        return threadName;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public String getDetail() {
+        return detail;
+    }
+    
+    public Throwable getError() {
+        return error;
+    }
+    
+    public Object getAttachment() {
+        return attachment;
+    }
+}
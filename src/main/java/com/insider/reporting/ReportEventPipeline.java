@@ -0,0 +1,120 @@
+package com.insider.reporting;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking report event pipeline
+ * Test threads enqueue events, a single consumer thread applies them to every registered sink in order
+ */
+public class ReportEventPipeline {
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final long FLUSH_TIMEOUT_SECONDS = 60;
+    private static ReportEventPipeline instance;
+    
+    private final BlockingQueue<ReportEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<ReportEventSink> sinks = new CopyOnWriteArrayList<>();
+    private final Thread consumer;
+    
+    private ReportEventPipeline() {
+        consumer = new Thread(this::consume, "report-event-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+    
+    /**
+     * Get the shared pipeline, starting its consumer thread on first use
+     * @return ReportEventPipeline - Shared pipeline
+     */
+    public static synchronized ReportEventPipeline getInstance() {
+        if (instance == null) {
+            instance = new ReportEventPipeline();
+        }
+        return instance;
+    }
+    
+    /**
+     * Register a sink that receives every event from now on
+     * @param sink - Sink to add
+     */
+    public void addSink(ReportEventSink sink) {
+        sinks.add(sink);
+    }
+    
+    /**
+     * Enqueue an event; blocks only when the consumer is QUEUE_CAPACITY events behind
+     * @param event - Event to publish
+     */
+    public void publish(ReportEvent event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Wait until every event published so far is applied, then flush all sinks
+     */
+    public void flush() {
+        awaitBarrier(true);
+    }
+    
+    /**
+     * Wait until every event published so far is applied, without flushing sinks
+     */
+    public void drain() {
+        awaitBarrier(false);
+    }
+    
+    private void awaitBarrier(boolean flushSinks) {
+        CountDownLatch barrier = new CountDownLatch(1);
+        publish(ReportEvent.barrier(barrier, flushSinks));
+        try {
+            if (!barrier.await(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("Warning: Report pipeline did not drain within " + FLUSH_TIMEOUT_SECONDS + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void consume() {
+        while (true) {
+            ReportEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (event.getType() == ReportEvent.Type.BARRIER) {
+                if (Boolean.parseBoolean(event.getDetail())) {
+                    flushSinks();
+                }
+                ((CountDownLatch) event.getAttachment()).countDown();
+                continue;
+            }
+            for (ReportEventSink sink : sinks) {
+                try {
+                    sink.accept(event);
+                } catch (RuntimeException e) {
+                    System.out.println("Warning: Report sink failed on " + event.getType() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void flushSinks() {
+        for (ReportEventSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Report sink failed to flush: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.insider.reporting;
+
+/**
+ * Receiver of report events, called only from the pipeline consumer thread
+ */
+public interface ReportEventSink {
+    
+    /**
+     * Apply one event
+     * @param event - Event to apply
+     */
+    void accept(ReportEvent event);
+    
+    /**
+     * Persist everything applied so far
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,221 @@
+package com.insider.reporting;
+
+import com.insider.utils.ConfigReader;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encodes and writes screenshots on a background executor
+ * Identical frames are detected by content hash and written only once
+ */
+public class ScreenshotWriter {
+    private static ScreenshotWriter instance;
+    
+    private final Path directory;
+    private final String format;
+    private final float quality;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<Path>> writtenFrames = new ConcurrentHashMap<>();
+    private final AtomicLong framesWritten = new AtomicLong();
+    private final AtomicLong duplicateFrames = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    
+    private ScreenshotWriter(Path directory, String format, float quality, int threads) {
+        this.directory = directory;
+        this.format = resolveFormat(format);
+        this.quality = quality;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Get the shared writer, configured from test.properties
+     * @return ScreenshotWriter - Shared writer
+     */
+    public static synchronized ScreenshotWriter getInstance() {
+        if (instance == null) {
+            // A shard keeps its screenshots inside its bundle so the bundle stays self-contained
+            String defaultDir = ShardBundle.isSharded()
+                    ? ShardBundle.getDirectory().resolve("screenshots").toString()
+                    : "test-output/ExtentReports/screenshots";
+            instance = new ScreenshotWriter(
+                Paths.get(ConfigReader.getProperty("screenshot.dir", defaultDir)),
+                ConfigReader.getProperty("screenshot.format", "jpeg"),
+                Float.parseFloat(ConfigReader.getProperty("screenshot.quality", "0.8")),
+                ConfigReader.getIntProperty("screenshot.writer.threads", 2));
+        }
+        return instance;
+    }
+    
+    /**
+     * Get the directory screenshots are written to
+     * @return Path - Screenshot directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Queue a raw PNG screenshot for encoding and writing
+     * @param png - Raw PNG bytes as returned by OutputType.BYTES
+     * @param clip - Area to keep in device pixels, or null for the full frame
+     * @return CompletableFuture - Path of the written file
+     */
+    public CompletableFuture<Path> submit(byte[] png, Rectangle clip) {
+        return CompletableFuture.supplyAsync(() -> writeOnce(png, clip), executor);
+    }
+    
+    /**
+     * Describe writer statistics for reporting
+     * @return String - Frames written, duplicates skipped and bytes on disk
+     */
+    public String describeStatistics() {
+        return framesWritten.get() + " files, " + duplicateFrames.get() + " duplicates skipped, "
+            + (bytesWritten.get() / 1024) + " KB";
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private Path writeOnce(byte[] png, Rectangle clip) {
+        String key = hash(png) + (clip != null ? "-" + clip.x + "_" + clip.y + "_" + clip.width + "_" + clip.height : "");
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = writtenFrames.putIfAbsent(key, created);
+        if (existing != null) {
+            duplicateFrames.incrementAndGet();
+            return existing.join();
+        }
+        try {
+            Path file = write(key, png, clip);
+            created.complete(file);
+            return file;
+        } catch (RuntimeException e) {
+            writtenFrames.remove(key);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    private Path write(String key, byte[] png, Rectangle clip) {
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(key + "." + extension());
+            if (Files.exists(file)) {
+                return file;
+            }
+            if (clip == null && "png".equals(format)) {
+                // Nothing to re-encode, keep the bytes the browser produced
+                Files.write(file, png);
+                recordWrite(file);
+                return file;
+            }
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (clip != null) {
+                image = crop(image, clip);
+            }
+            encode(image, file);
+            recordWrite(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write screenshot " + key, e);
+        }
+    }
+    
+    private void recordWrite(Path file) throws IOException {
+        framesWritten.incrementAndGet();
+        bytesWritten.addAndGet(Files.size(file));
+    }
+    
+    private BufferedImage crop(BufferedImage image, Rectangle clip) {
+        Rectangle bounded = clip.intersection(new Rectangle(0, 0, image.getWidth(), image.getHeight()));
+        if (bounded.isEmpty()) {
+            return image;
+        }
+        return image.getSubimage(bounded.x, bounded.y, bounded.width, bounded.height);
+    }
+    
+    private void encode(BufferedImage image, Path file) throws IOException {
+        BufferedImage output = image;
+        if (!"png".equals(format) && image.getColorModel().hasAlpha()) {
+            // JPEG has no alpha channel
+            output = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = output.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed() && !"png".equals(format)) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+        }
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(output, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+    
+    private String extension() {
+        return "jpeg".equals(format) ? "jpg" : format;
+    }
+    
+    /**
+     * Use the requested format when an ImageIO writer exists for it
+     * The JDK ships PNG and JPEG writers, WebP needs a plugin such as TwelveMonkeys on the classpath
+     * @param requested - Requested format name
+     * @return String - Format that can be written
+     */
+    private static String resolveFormat(String requested) {
+        String normalized = requested.toLowerCase();
+        if ("jpg".equals(normalized)) {
+            normalized = "jpeg";
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(normalized);
+        if (writers.hasNext()) {
+            return normalized;
+        }
+        System.out.println("No ImageIO writer for screenshot format '" + requested + "', using jpeg");
+        return "jpeg";
+    }
+    
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 12; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.insider.reporting;
+
+import com.insider.utils.ConfigReader;
+import com.insider.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Self-contained result bundle written by one shard (fork or machine) of a split run
+ * A bundle holds manifest.json, the events.jsonl stream and its screenshots, and is
+ * combined with other bundles by {@link ShardMergeTool}
+ */
+public class ShardBundle {
+    public static final String MANIFEST_FILE = "manifest.json";
+    private static final long STARTED_AT = System.currentTimeMillis();
+    
+    /**
+     * Get the shard id of this JVM, set with -Dreport.shard.id
+     * @return String - Shard id, or null when the run is not sharded
+     */
+    public static String getShardId() {
+        String shardId = ConfigReader.getProperty("report.shard.id");
+        return shardId == null || shardId.trim().isEmpty() ? null : shardId.trim();
+    }
+    
+    /**
+     * Check whether this JVM runs as one shard of a split run
+     * @return boolean - true if report.shard.id is set
+     */
+    public static boolean isSharded() {
+        return getShardId() != null;
+    }
+    
+    /**
+     * Get the bundle directory of this shard
+     * @return Path - report.shard.dir/<shard id>
+     */
+    public static Path getDirectory() {
+        return Paths.get(ConfigReader.getProperty("report.shard.dir", "test-output/shards"), getShardId());
+    }
+    
+    /**
+     * Write the bundle manifest
+     * @param reportName - Report name used by the merged report
+     * @param finished - true once the shard has flushed all of its events
+     */
+    public static void writeManifest(String reportName, boolean finished) {
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("shardId", getShardId());
+        manifest.put("reportName", reportName);
+        manifest.put("host", hostName());
+        manifest.put("pid", ProcessHandle.current().pid());
+        manifest.put("startedAt", STARTED_AT);
+        manifest.put("finishedAt", finished ? System.currentTimeMillis() : null);
+        manifest.put("events", StreamingReportSink.EVENTS_FILE);
+        try {
+            Files.createDirectories(getDirectory());
+            Files.writeString(getDirectory().resolve(MANIFEST_FILE), JsonUtils.toJson(manifest), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write shard manifest", e);
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
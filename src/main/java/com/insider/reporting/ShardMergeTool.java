@@ -0,0 +1,239 @@
+package com.insider.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.insider.utils.JsonUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines shard bundles into one report with a single timeline
+ * Events of all shards are ordered by their original timestamps and replayed into a fresh
+ * ExtentReports instance, next to a merged events.jsonl for the streaming viewer
+ *
+ * Usage: ShardMergeTool [outputDir] [bundleDir ...]
+ * Without bundle directories every bundle under test-output/shards is merged
+ */
+public class ShardMergeTool {
+    private static final String DEFAULT_OUTPUT = "test-output/merged";
+    private static final String DEFAULT_SHARDS = "test-output/shards";
+    
+    public static void main(String[] args) {
+        Path outputDir = Paths.get(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        List<Path> bundles = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            bundles.add(Paths.get(args[i]));
+        }
+        if (bundles.isEmpty()) {
+            bundles = findBundles(Paths.get(DEFAULT_SHARDS));
+        }
+        Path report = merge(bundles, outputDir);
+        System.out.println("Merged " + bundles.size() + " shard bundles into " + report);
+    }
+    
+    /**
+     * Merge shard bundles into one report
+     * @param bundles - Bundle directories, each holding manifest.json and events.jsonl
+     * @param outputDir - Directory for the merged report, events and screenshots
+     * @return Path - Merged ExtentReports HTML file
+     */
+    public static Path merge(List<Path> bundles, Path outputDir) {
+        try {
+            Files.createDirectories(outputDir.resolve("screenshots"));
+            String reportName = "Insider Test Automation Report";
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (Path bundle : bundles) {
+                Map<String, Object> manifest = readManifest(bundle);
+                String shardId = String.valueOf(manifest.getOrDefault("shardId", bundle.getFileName().toString()));
+                reportName = String.valueOf(manifest.getOrDefault("reportName", reportName));
+                events.addAll(readEvents(bundle, shardId, outputDir));
+            }
+            events.sort(Comparator.comparingLong(event -> ((Number) event.get("ts")).longValue()));
+            
+            writeEvents(events, outputDir);
+            StreamingReportSink.copyViewer(outputDir);
+            Map<String, LatencyHistogram> latency = mergeLatency(bundles, outputDir);
+            return writeExtentReport(events, latency, reportName, bundles.size(), outputDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to merge shard bundles into " + outputDir, e);
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static List<Path> findBundles(Path shardsDir) {
+        if (!Files.isDirectory(shardsDir)) {
+            return List.of();
+        }
+        try (Stream<Path> dirs = Files.list(shardsDir)) {
+            return dirs.filter(dir -> Files.exists(dir.resolve(StreamingReportSink.EVENTS_FILE)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list shard bundles in " + shardsDir, e);
+        }
+    }
+    
+    private static Map<String, Object> readManifest(Path bundle) throws IOException {
+        Path manifest = bundle.resolve(ShardBundle.MANIFEST_FILE);
+        if (!Files.exists(manifest)) {
+            return Map.of();
+        }
+        Map<String, Object> values = new HashMap<>(JsonUtils.parseMap(Files.readString(manifest, StandardCharsets.UTF_8)));
+        values.values().removeIf(value -> value == null);
+        if (!values.containsKey("finishedAt")) {
+            System.out.println("Warning: Shard bundle " + bundle + " did not finish, merging the events it recorded");
+        }
+        return values;
+    }
+    
+    /**
+     * Read a bundle's events, tagging them with the shard and moving screenshots into the merged report
+     */
+    private static List<Map<String, Object>> readEvents(Path bundle, String shardId, Path outputDir) throws IOException {
+        List<Map<String, Object>> events = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(bundle.resolve(StreamingReportSink.EVENTS_FILE), StandardCharsets.UTF_8)) {
+            for (String line : (Iterable<String>) lines::iterator) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> event;
+                try {
+                    event = new LinkedHashMap<>(JsonUtils.parseMap(line));
+                } catch (RuntimeException e) {
+                    // A shard killed mid-write can leave a truncated last line
+                    continue;
+                }
+                event.put("shard", shardId);
+                event.put("thread", shardId + "/" + event.get("thread"));
+                if (event.get("screenshot") != null) {
+                    Path source = bundle.resolve(String.valueOf(event.get("screenshot")));
+                    // Screenshot names are content hashes, so shards never clash and duplicates collapse
+                    Path target = outputDir.resolve("screenshots").resolve(source.getFileName());
+                    if (Files.exists(source) && !Files.exists(target)) {
+                        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    event.put("screenshot", "screenshots/" + source.getFileName());
+                }
+                events.add(event);
+            }
+        }
+        return events;
+    }
+    
+    private static void writeEvents(List<Map<String, Object>> events, Path outputDir) throws IOException {
+        Map<String, Long> mergedIds = new HashMap<>();
+        try (BufferedWriter writer = Files.newBufferedWriter(outputDir.resolve(StreamingReportSink.EVENTS_FILE),
+                StandardCharsets.UTF_8)) {
+            for (Map<String, Object> event : events) {
+                if (event.get("testId") != null) {
+                    event.put("testId", mergedId(mergedIds, event));
+                }
+                writer.write(JsonUtils.toJson(event));
+                writer.newLine();
+            }
+        }
+    }
+    
+    private static long mergedId(Map<String, Long> mergedIds, Map<String, Object> event) {
+        String key = event.get("shard") + ":" + event.get("testId");
+        return mergedIds.computeIfAbsent(key, ignored -> (long) mergedIds.size() + 1);
+    }
+    
+    /**
+     * Merge the step latency histograms of all bundles that exported one
+     */
+    private static Map<String, LatencyHistogram> mergeLatency(List<Path> bundles, Path outputDir) {
+        Map<String, LatencyHistogram> merged = new LinkedHashMap<>();
+        for (Path bundle : bundles) {
+            Path export = bundle.resolve(StepLatencyRecorder.EXPORT_FILE);
+            if (Files.exists(export)) {
+                StepLatencyRecorder.read(export).forEach((step, histogram) ->
+                        merged.computeIfAbsent(step, name -> new LatencyHistogram()).merge(histogram));
+            }
+        }
+        if (!merged.isEmpty()) {
+            StepLatencyRecorder.write(merged, outputDir.resolve(StepLatencyRecorder.EXPORT_FILE));
+        }
+        return merged;
+    }
+    
+    private static Path writeExtentReport(List<Map<String, Object>> events, Map<String, LatencyHistogram> latency,
+                                          String reportName, int shardCount, Path outputDir) {
+        Path reportPath = outputDir.resolve(reportName + ".html");
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath.toString());
+        sparkReporter.config().setDocumentTitle("Insider Test Automation Report");
+        sparkReporter.config().setReportName(reportName + " (" + shardCount + " shards)");
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+        
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(sparkReporter);
+        ExtentReportSink sink = new ExtentReportSink(extent, outputDir);
+        for (Map<String, Object> event : events) {
+            ReportEvent replayed = toReportEvent(event, outputDir);
+            if (replayed != null) {
+                sink.accept(replayed);
+            }
+        }
+        extent.setSystemInfo("Shards", String.valueOf(shardCount));
+        StepLatencyRecorder.describe(latency).forEach(extent::setSystemInfo);
+        sink.flush();
+        return reportPath;
+    }
+    
+    private static ReportEvent toReportEvent(Map<String, Object> event, Path outputDir) {
+        ReportEvent.Type type;
+        try {
+            type = ReportEvent.Type.valueOf(String.valueOf(event.get("type")));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String shard = String.valueOf(event.get("shard"));
+        String message = (String) event.get("message");
+        Object attachment = null;
+        if (type == ReportEvent.Type.SYSTEM_INFO) {
+            message = shard + " - " + message;
+        } else if (type == ReportEvent.Type.EXCEPTION) {
+            message = (String) event.get("error");
+        } else if (type == ReportEvent.Type.SCREENSHOT && event.get("screenshot") != null) {
+            attachment = CompletableFuture.completedFuture(outputDir.resolve(String.valueOf(event.get("screenshot"))));
+        } else if (type == ReportEvent.Type.SCREENSHOT) {
+            return ReportEvent.replay(ReportEvent.Type.LOG, testId(event), (String) event.get("test"),
+                    (String) event.get("thread"), timestamp(event), Status.WARNING,
+                    "Screenshot missing from shard bundle: " + event.get("error"), null, null);
+        }
+        Status status = event.get("status") != null ? Status.valueOf(String.valueOf(event.get("status"))) : null;
+        return ReportEvent.replay(type, testId(event), (String) event.get("test"), (String) event.get("thread"),
+                timestamp(event), status, message, (String) event.get("detail"), attachment);
+    }
+    
+    private static long testId(Map<String, Object> event) {
+        Object testId = event.get("testId");
+        return testId != null ? ((Number) testId).longValue() : 0;
+    }
+    
+    private static long timestamp(Map<String, Object> event) {
+        return ((Number) event.get("ts")).longValue();
+    }
+}
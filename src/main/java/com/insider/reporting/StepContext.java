@@ -0,0 +1,57 @@
+package com.insider.reporting;
+
+/**
+ * Name of the step running on each test thread
+ * Recorders on the test thread read it with {@link #current()}; recorders fed from other
+ * threads (DevTools events) keep the thread's {@link Holder}, captured on the test thread
+ */
+public class StepContext {
+    private static final ThreadLocal<Holder> holders = ThreadLocal.withInitial(Holder::new);
+    
+    /**
+     * Make a step the current step of the calling thread
+     * @param stepName - Step name
+     * @return String - Step that was active before, to pass to {@link #exit(String)}
+     */
+    public static String enter(String stepName) {
+        Holder holder = holders.get();
+        String previous = holder.step;
+        holder.step = stepName;
+        return previous;
+    }
+    
+    /**
+     * Restore the step that was active before {@link #enter(String)}
+     * @param previousStep - Value returned by enter
+     */
+    public static void exit(String previousStep) {
+        holders.get().step = previousStep;
+    }
+    
+    /**
+     * Get the step running on the calling thread
+     * @return String - Step name, or null outside steps
+     */
+    public static String current() {
+        return holders.get().step;
+    }
+    
+    /**
+     * Get the calling thread's holder, readable from any thread
+     * @return Holder - Holder of the calling thread
+     */
+    public static Holder holder() {
+        return holders.get();
+    }
+    
+    /**
+     * Current step of one test thread, safe to read from other threads
+     */
+    public static class Holder {
+        private volatile String step;
+        
+        public String getStep() {
+            return step;
+        }
+    }
+}
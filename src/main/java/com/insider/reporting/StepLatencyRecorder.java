@@ -0,0 +1,146 @@
+package com.insider.reporting;
+
+import com.insider.utils.ConfigReader;
+import com.insider.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Suite-wide latency histograms keyed by step name
+ * Fed by BaseTest.executeStep and executeAssertion; once a step name has been seen,
+ * recording it is a map lookup plus a few atomic increments
+ */
+public class StepLatencyRecorder {
+    public static final String EXPORT_FILE = "step-latency.json";
+    private static final StepLatencyRecorder INSTANCE = new StepLatencyRecorder();
+    
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    
+    private StepLatencyRecorder() {
+    }
+    
+    public static StepLatencyRecorder getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Record the duration of a step
+     * @param stepName - Step name
+     * @param nanos - Duration in nanoseconds
+     */
+    public void record(String stepName, long nanos) {
+        LatencyHistogram histogram = histograms.get(stepName);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(stepName, name -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+    
+    /**
+     * Get the histograms recorded so far
+     * @return Map - Step name to histogram
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+    
+    /**
+     * Summarise every step for the report dashboard, slowest p99 first
+     * The latency.slowest.count slowest steps are marked so they stand out
+     * @return Map - Entry name to "p50 / p90 / p99 / max" summary
+     */
+    public Map<String, String> getStatistics() {
+        return describe(histograms);
+    }
+    
+    /**
+     * Summarise histograms for the report dashboard, slowest p99 first
+     * @param histograms - Step name to histogram
+     * @return Map - Entry name to "p50 / p90 / p99 / max" summary
+     */
+    public static Map<String, String> describe(Map<String, LatencyHistogram> histograms) {
+        int highlighted = ConfigReader.getIntProperty("latency.slowest.count", 3);
+        List<Map.Entry<String, LatencyHistogram>> bySlowest = histograms.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getPercentileMicros(99)).reversed())
+                .collect(Collectors.toList());
+        
+        Map<String, String> statistics = new LinkedHashMap<>();
+        for (int i = 0; i < bySlowest.size(); i++) {
+            LatencyHistogram histogram = bySlowest.get(i).getValue();
+            String name = (i < highlighted ? "Slowest #" + (i + 1) + " - " : "Step Latency - ") + bySlowest.get(i).getKey();
+            statistics.put(name, String.format("p50 %s / p90 %s / p99 %s / max %s (n=%d)",
+                    formatMicros(histogram.getPercentileMicros(50)), formatMicros(histogram.getPercentileMicros(90)),
+                    formatMicros(histogram.getPercentileMicros(99)), formatMicros(histogram.getMaxMicros()),
+                    histogram.getCount()));
+        }
+        return statistics;
+    }
+    
+    /**
+     * Export all histograms as JSON
+     * Written to latency.export.file, or into the shard bundle when the run is split
+     * @return Path - Written file
+     */
+    public Path export() {
+        Path file = ShardBundle.isSharded()
+                ? ShardBundle.getDirectory().resolve(EXPORT_FILE)
+                : Paths.get(ConfigReader.getProperty("latency.export.file", "test-output/" + EXPORT_FILE));
+        write(histograms, file);
+        return file;
+    }
+    
+    /**
+     * Write histograms as JSON
+     * @param histograms - Step name to histogram
+     * @param file - Target file
+     */
+    public static void write(Map<String, LatencyHistogram> histograms, Path file) {
+        Map<String, Object> export = new LinkedHashMap<>();
+        histograms.forEach((step, histogram) -> export.put(step, histogram.toMap()));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, JsonUtils.toJson(export), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export step latency to " + file, e);
+        }
+    }
+    
+    /**
+     * Read histograms written by {@link #write(Map, Path)}
+     * @param file - Exported file
+     * @return Map - Step name to histogram
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, LatencyHistogram> read(Path file) {
+        try {
+            Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+            JsonUtils.parseMap(Files.readString(file, StandardCharsets.UTF_8)).forEach((step, values) ->
+                    histograms.put(step, LatencyHistogram.fromMap((Map<String, Object>) values)));
+            return histograms;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read step latency from " + file, e);
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static String formatMicros(long micros) {
+        return micros >= 1000 ? (micros / 1000) + " ms" : micros + " us";
+    }
+}
@@ -0,0 +1,128 @@
+package com.insider.reporting;
+
+import com.insider.utils.JsonUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Streams report events to disk as JSON lines, next to a lightweight HTML viewer
+ * Nothing is kept in memory per test, and the file is flushed whenever a test finishes,
+ * so a partial report can be opened while the suite is still running
+ */
+public class StreamingReportSink implements ReportEventSink {
+    public static final String EVENTS_FILE = "events.jsonl";
+    private static final String VIEWER_RESOURCE = "report-viewer.html";
+    
+    private final Path directory;
+    private final BufferedWriter writer;
+    
+    /**
+     * Constructor for StreamingReportSink
+     * @param directory - Output directory for events.jsonl and index.html
+     */
+    public StreamingReportSink(Path directory) {
+        this.directory = directory.toAbsolutePath();
+        try {
+            Files.createDirectories(this.directory);
+            copyViewer(this.directory);
+            this.writer = Files.newBufferedWriter(this.directory.resolve(EVENTS_FILE), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create streaming report in " + directory, e);
+        }
+    }
+    
+    /**
+     * Get the output directory of this sink
+     * @return Path - Directory containing events.jsonl
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    @Override
+    public void accept(ReportEvent event) {
+        Map<String, Object> line = toMap(event);
+        try {
+            writer.write(JsonUtils.toJson(line));
+            writer.newLine();
+            if (event.getType() == ReportEvent.Type.TEST_FINISHED) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report event", e);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to flush streaming report", e);
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toMap(ReportEvent event) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", event.getType().name());
+        line.put("ts", event.getTimestampMillis());
+        line.put("thread", event.getThreadName());
+        if (event.getTestId() != 0) {
+            line.put("testId", event.getTestId());
+            line.put("test", event.getTestName());
+        }
+        if (event.getStatus() != null) {
+            line.put("status", event.getStatus().name());
+        }
+        if (event.getMessage() != null) {
+            line.put("message", event.getMessage());
+        }
+        if (event.getDetail() != null) {
+            line.put("detail", event.getDetail());
+        }
+        if (event.getError() != null) {
+            StringWriter stackTrace = new StringWriter();
+            event.getError().printStackTrace(new PrintWriter(stackTrace));
+            line.put("error", stackTrace.toString());
+        }
+        if (event.getType() == ReportEvent.Type.SCREENSHOT) {
+            try {
+                Path screenshot = ((CompletableFuture<Path>) event.getAttachment()).join();
+                line.put("screenshot", directory.relativize(screenshot.toAbsolutePath()).toString().replace('\\', '/'));
+            } catch (CompletionException e) {
+                line.put("error", "Failed to save screenshot: " + e.getCause().getMessage());
+            }
+        }
+        return line;
+    }
+    
+    /**
+     * Copy the HTML viewer into a report directory
+     * @param directory - Directory receiving index.html
+     */
+    static void copyViewer(Path directory) throws IOException {
+        try (InputStream viewer = StreamingReportSink.class.getClassLoader().getResourceAsStream(VIEWER_RESOURCE)) {
+            if (viewer != null) {
+                Files.copy(viewer, directory.resolve("index.html"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.insider.reporting;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identity of a reported test, shared by every event the test produces
+ */
+public final class TestIdentity {
+    private static final AtomicLong nextId = new AtomicLong(1);
+    
+    private final long id;
+    private final String name;
+    
+    /**
+     * Constructor for TestIdentity
+     * @param name - Name of the test
+     */
+    public TestIdentity(String name) {
+        this.id = nextId.getAndIncrement();
+        this.name = name;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,258 @@
+package com.insider.reporting;
+
+import com.insider.driver.DevToolsSupport;
+import com.insider.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-test timeline trace in Chrome trace-event format, viewable in chrome://tracing or Perfetto
+ * Java-side spans (steps, WebDriver commands, waits) are recorded on the test thread
+ * and shifted onto the browser's DevTools trace clock using a clock sync marker, so both
+ * sides line up on one timeline
+ */
+public class TraceRecorder {
+    private static final int JAVA_PID = 0;
+    private static final String SYNC_ID = "insider-java-clock";
+    private static final String DEFAULT_CATEGORIES = "devtools.timeline,disabled-by-default-devtools.timeline,"
+            + "blink.user_timing,loading,v8.execute,netlog";
+    private static final ThreadLocal<TestTrace> currentTrace = new ThreadLocal<>();
+    
+    /**
+     * Check whether tests record a trace, set with trace.enabled
+     * @return boolean - true if tracing is enabled
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("trace.enabled", false);
+    }
+    
+    /**
+     * Start tracing the current test
+     * The browser side is optional; if DevTools tracing cannot start only Java spans are written
+     * @param driver - Raw (undecorated) session of the test
+     * @param testName - Test name used for the output file
+     */
+    public static void start(WebDriver driver, String testName) {
+        TestTrace trace = new TestTrace(driver, testName);
+        currentTrace.set(trace);
+        try {
+            trace.startBrowserTrace();
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Browser tracing unavailable, recording Java spans only: " + e.getMessage());
+            trace.browserTracing = false;
+        }
+    }
+    
+    /**
+     * Record a finished span on the current test's trace
+     * @param category - Span category, e.g. "step", "webdriver" or "wait"
+     * @param name - Span name
+     * @param startNanos - System.nanoTime() at the start
+     * @param endNanos - System.nanoTime() at the end
+     */
+    public static void span(String category, String name, long startNanos, long endNanos) {
+        TestTrace trace = currentTrace.get();
+        if (trace != null) {
+            trace.spans.add(new Span(category, name, startNanos, endNanos, Thread.currentThread().getId()));
+        }
+    }
+    
+    /**
+     * Stop tracing and write the combined trace file
+     * @return Path - Written trace, or null when the test was not traced
+     */
+    public static Path finish() {
+        TestTrace trace = currentTrace.get();
+        if (trace == null) {
+            return null;
+        }
+        currentTrace.remove();
+        List<Map<String, Object>> browserEvents = List.of();
+        if (trace.browserTracing) {
+            try {
+                browserEvents = trace.stopBrowserTrace();
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Could not collect browser trace: " + e.getMessage());
+            }
+        }
+        return trace.write(browserEvents);
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * A finished Java-side span
+     */
+    private static class Span {
+        private final String category;
+        private final String name;
+        private final long startNanos;
+        private final long endNanos;
+        private final long threadId;
+        
+        Span(String category, String name, long startNanos, long endNanos, long threadId) {
+            this.category = category;
+            this.name = name;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.threadId = threadId;
+        }
+    }
+    
+    /**
+     * Trace state of one running test
+     */
+    private static class TestTrace {
+        private final WebDriver driver;
+        private final String testName;
+        private final long startNanos = System.nanoTime();
+        private final List<Span> spans = new ArrayList<>();
+        private boolean browserTracing = true;
+        private long syncNanos;
+        
+        TestTrace(WebDriver driver, String testName) {
+            this.driver = driver;
+            this.testName = testName;
+        }
+        
+        void startBrowserTrace() {
+            List<String> categories = Arrays.asList(
+                    ConfigReader.getProperty("trace.categories", DEFAULT_CATEGORIES).split(","));
+            DevToolsSupport.send(driver, "Tracing.start", Map.of(
+                    "transferMode", "ReturnAsStream",
+                    "traceConfig", Map.of("includedCategories", categories)));
+            // The marker lands on the browser clock; the midpoint of the call is its Java time
+            long before = System.nanoTime();
+            DevToolsSupport.send(driver, "Tracing.recordClockSyncMarker", Map.of("syncId", SYNC_ID));
+            syncNanos = before + (System.nanoTime() - before) / 2;
+        }
+        
+        List<Map<String, Object>> stopBrowserTrace() {
+            CompletableFuture<String> stream = new CompletableFuture<>();
+            try (DevToolsSupport.Subscription ignored = DevToolsSupport.subscribe(driver, "Tracing.tracingComplete",
+                    params -> stream.complete((String) params.get("stream")))) {
+                DevToolsSupport.send(driver, "Tracing.end", Map.of());
+                String handle = stream.get(ConfigReader.getIntProperty("trace.collect.timeout", 30), TimeUnit.SECONDS);
+                return readTraceStream(handle);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while collecting browser trace", e);
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        private List<Map<String, Object>> readTraceStream(String handle) {
+            StringBuilder data = new StringBuilder();
+            boolean eof = false;
+            while (!eof) {
+                Map<String, Object> chunk = DevToolsSupport.send(driver, "IO.read", Map.of("handle", handle, "size", 1 << 20));
+                String text = (String) chunk.get("data");
+                if (Boolean.TRUE.equals(chunk.get("base64Encoded"))) {
+                    text = new String(Base64.getDecoder().decode(text), StandardCharsets.UTF_8);
+                }
+                data.append(text);
+                eof = Boolean.TRUE.equals(chunk.get("eof"));
+            }
+            DevToolsSupport.send(driver, "IO.close", Map.of("handle", handle));
+            Object parsed = new Json().toType(data.toString(), Object.class);
+            // The stream is either {"traceEvents": [...]} or a bare array
+            Object events = parsed instanceof Map ? ((Map<String, Object>) parsed).get("traceEvents") : parsed;
+            return events instanceof List ? (List<Map<String, Object>>) events : List.of();
+        }
+        
+        Path write(List<Map<String, Object>> browserEvents) {
+            long offsetMicros = clockOffsetMicros(browserEvents);
+            List<Map<String, Object>> javaEvents = new ArrayList<>();
+            javaEvents.add(metadata("process_name", Map.of("name", "Java test: " + testName)));
+            javaEvents.add(metadata("thread_name", Map.of("name", Thread.currentThread().getName())));
+            for (Span span : spans) {
+                Map<String, Object> event = new LinkedHashMap<>();
+                event.put("name", span.name);
+                event.put("cat", span.category);
+                event.put("ph", "X");
+                event.put("ts", span.startNanos / 1000 + offsetMicros);
+                event.put("dur", Math.max(1, (span.endNanos - span.startNanos) / 1000));
+                event.put("pid", JAVA_PID);
+                event.put("tid", span.threadId);
+                javaEvents.add(event);
+            }
+            
+            Path file = Paths.get(ConfigReader.getProperty("trace.dir", "test-output/traces"),
+                    testName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis() + ".json");
+            try {
+                Files.createDirectories(file.getParent());
+                try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                     JsonOutput output = new Json().newOutput(writer)) {
+                    output.setPrettyPrint(false);
+                    output.beginObject().name("displayTimeUnit").write("ms").name("traceEvents").beginArray();
+                    for (Map<String, Object> event : javaEvents) {
+                        output.write(event);
+                    }
+                    for (Map<String, Object> event : browserEvents) {
+                        output.write(event);
+                    }
+                    output.endArray().endObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write trace " + file, e);
+            }
+            return file;
+        }
+        
+        /**
+         * Offset that maps nanoTime-based microseconds onto the browser trace clock
+         */
+        @SuppressWarnings("unchecked")
+        private long clockOffsetMicros(List<Map<String, Object>> browserEvents) {
+            Long earliest = null;
+            for (Map<String, Object> event : browserEvents) {
+                Object args = event.get("args");
+                Object ts = event.get("ts");
+                if (!(ts instanceof Number)) {
+                    continue;
+                }
+                if ("clock_sync".equals(event.get("name")) && args instanceof Map
+                        && SYNC_ID.equals(((Map<String, Object>) args).get("sync_id"))) {
+                    return ((Number) ts).longValue() - syncNanos / 1000;
+                }
+                long value = ((Number) ts).longValue();
+                if (value > 0 && (earliest == null || value < earliest)) {
+                    earliest = value;
+                }
+            }
+            // Without a marker, align the start of the test with the first browser event
+            return earliest != null ? earliest - startNanos / 1000 : -startNanos / 1000;
+        }
+        
+        private Map<String, Object> metadata(String name, Map<String, Object> args) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", name);
+            event.put("ph", "M");
+            event.put("pid", JAVA_PID);
+            event.put("tid", Thread.currentThread().getId());
+            event.put("args", args);
+            return event;
+        }
+    }
+}
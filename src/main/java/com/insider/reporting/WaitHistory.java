@@ -0,0 +1,156 @@
+package com.insider.reporting;
+
+import com.insider.utils.ConfigReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Observed wait times keyed by wait condition, persisted across runs
+ * Timeouts are learned from previous runs as p99 x wait.timeout.factor, bounded by
+ * wait.timeout.min.ms and the wait's own default, once a condition has wait.history.min.samples
+ * successful waits on record. Waits that time out are counted but not recorded, so a broken
+ * site does not stretch the learned timeouts. Stored samples are scaled by wait.history.decay on
+ * every save, so recent runs dominate and learned timeouts follow the site as it changes
+ */
+public class WaitHistory {
+    private static final WaitHistory INSTANCE = new WaitHistory();
+    
+    private final Map<String, LatencyHistogram> current = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> timeouts = new ConcurrentHashMap<>();
+    private final AtomicLong learnedTimeouts = new AtomicLong();
+    private volatile Map<String, LatencyHistogram> previous;
+    
+    private WaitHistory() {
+    }
+    
+    public static WaitHistory getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Get the timeout to use for a condition
+     * @param key - Condition key
+     * @param defaultTimeout - Timeout of the wait, also the upper bound of learned timeouts
+     * @return Duration - Learned timeout, or the default when there is not enough history
+     */
+    public Duration timeoutFor(String key, Duration defaultTimeout) {
+        if (!ConfigReader.getBooleanProperty("wait.adaptive.timeout", true)) {
+            return defaultTimeout;
+        }
+        LatencyHistogram history = getPrevious().get(key);
+        if (history == null || history.getCount() < ConfigReader.getIntProperty("wait.history.min.samples", 20)) {
+            return defaultTimeout;
+        }
+        double factor = Double.parseDouble(ConfigReader.getProperty("wait.timeout.factor", "3"));
+        long learnedMillis = (long) (history.getPercentileMicros(99) / 1000 * factor);
+        long minMillis = ConfigReader.getIntProperty("wait.timeout.min.ms", 2000);
+        long bounded = Math.min(defaultTimeout.toMillis(), Math.max(minMillis, learnedMillis));
+        if (bounded < defaultTimeout.toMillis()) {
+            learnedTimeouts.incrementAndGet();
+        }
+        return Duration.ofMillis(bounded);
+    }
+    
+    /**
+     * Record one finished wait
+     * @param key - Condition key
+     * @param nanos - Observed wait time
+     * @param satisfied - false if the wait timed out
+     */
+    public void record(String key, long nanos, boolean satisfied) {
+        if (satisfied) {
+            current.computeIfAbsent(key, name -> new LatencyHistogram()).record(nanos);
+        } else {
+            timeouts.computeIfAbsent(key, name -> new AtomicLong()).incrementAndGet();
+        }
+    }
+    
+    /**
+     * Summarise this run's waits for the report dashboard
+     * @return Map - Statistic name to value
+     */
+    public Map<String, String> getStatistics() {
+        long count = current.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+        long totalTimeouts = timeouts.values().stream().mapToLong(AtomicLong::get).sum();
+        Map<String, String> statistics = new LinkedHashMap<>();
+        statistics.put("Waits", count + " satisfied, " + totalTimeouts + " timed out, "
+                + learnedTimeouts.get() + " with learned timeouts");
+        List<Map.Entry<String, LatencyHistogram>> slowest = current.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getPercentileMicros(99)).reversed())
+                .limit(ConfigReader.getIntProperty("wait.report.top", 5))
+                .collect(Collectors.toList());
+        int rank = 1;
+        for (Map.Entry<String, LatencyHistogram> entry : slowest) {
+            LatencyHistogram histogram = entry.getValue();
+            statistics.put("Slowest Wait #" + rank++ + " - " + entry.getKey(), String.format("p50 %d ms / p99 %d ms (n=%d)",
+                    histogram.getPercentileMicros(50) / 1000, histogram.getPercentileMicros(99) / 1000, histogram.getCount()));
+        }
+        timeouts.forEach((key, value) -> statistics.put("Wait Timeouts - " + key, String.valueOf(value.get())));
+        return statistics;
+    }
+    
+    /**
+     * Merge this run into the decayed stored history and write it to wait.history.file
+     * Conditions whose decayed history is empty are dropped
+     * @return Path - Written file
+     */
+    public Path save() {
+        double decay = Double.parseDouble(ConfigReader.getProperty("wait.history.decay", "0.5"));
+        Map<String, LatencyHistogram> merged = new LinkedHashMap<>();
+        getPrevious().forEach((key, histogram) -> {
+            LatencyHistogram kept = histogram.decayed(decay);
+            if (kept.getCount() > 0) {
+                merged.put(key, kept);
+            }
+        });
+        current.forEach((key, histogram) -> merged.computeIfAbsent(key, name -> new LatencyHistogram()).merge(histogram));
+        Path file = getFile();
+        StepLatencyRecorder.write(merged, file);
+        return file;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private Map<String, LatencyHistogram> getPrevious() {
+        Map<String, LatencyHistogram> loaded = previous;
+        if (loaded == null) {
+            synchronized (this) {
+                if (previous == null) {
+                    previous = load();
+                }
+                loaded = previous;
+            }
+        }
+        return loaded;
+    }
+    
+    private Map<String, LatencyHistogram> load() {
+        Path file = getFile();
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try {
+            return StepLatencyRecorder.read(file);
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Ignoring unreadable wait history " + file + ": " + e.getMessage());
+            return Map.of();
+        }
+    }
+    
+    private static Path getFile() {
+        return Paths.get(ConfigReader.getProperty("wait.history.file", "test-output/history/waits.json"));
+    }
+}
@@ -1,61 +1,201 @@
 package com.insider.tests;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.insider.driver.DriverPool;
+import com.insider.driver.NetworkShaping;
+import com.insider.driver.PooledSession;
+import com.insider.driver.RoundTripListener;
+import com.insider.driver.RoundTripStatistics;
+import com.insider.driver.SharedBrowserHost;
+import com.insider.driver.SharedDriverService;
+import com.insider.driver.WindowWatcher;
+import com.insider.reporting.CapturePolicy;
+import com.insider.reporting.CapturePolicyEngine;
+import com.insider.reporting.HarRecorder;
+import com.insider.reporting.ReportEventPipeline;
+import com.insider.reporting.ScreenshotWriter;
+import com.insider.reporting.StepContext;
+import com.insider.reporting.StepLatencyRecorder;
+import com.insider.reporting.TraceRecorder;
+import com.insider.reporting.WaitHistory;
+import com.insider.utils.AdaptiveWait;
+import com.insider.utils.ConfigReader;
 import com.insider.utils.ExtentReportUtils;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.insider.utils.LocatorCache;
+import com.insider.utils.NetworkIdleUtils;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 
-import java.time.Duration;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Map;
 
 public class BaseTest {
-    protected WebDriver driver;
-    protected WebDriverWait wait;
+    // Per-test resources are confined to the thread running the test
+    private static final ThreadLocal<PooledSession> session = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> wait = new ThreadLocal<>();
     protected static ExtentReports extent;
-    protected ExtentTest test;
     
     @BeforeSuite
     public void setUpSuite() {
+        // Start launching browsers in the background while the report initializes
+        DriverPool.getInstance().prewarm(ConfigReader.getIntProperty("driver.prewarm.count", ConfigReader.getThreadCount()));
+        
         // Initialize ExtentReports
         extent = ExtentReportUtils.initializeExtentReport("Insider Test Automation Report");
     }
     
     @BeforeMethod
-    public void setUp() {
-        // Setup ChromeDriver
-        WebDriverManager.chromedriver().setup();
-        
-        // Configure Chrome options
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-notifications");
-        options.addArguments("--disable-popup-blocking");
+    public void setUp(Method testMethod) {
+        // Lease a browser session from the pool
+        PooledSession leased = DriverPool.getInstance().lease();
+        session.set(leased);
         
-        // Initialize WebDriver
-        driver = new ChromeDriver(options);
-        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        try {
+            // Tests get a decorated session so every WebDriver round trip is accounted
+            driver.set(RoundTripStatistics.isEnabled() ? RoundTripListener.decorate(leased.getDriver()) : leased.getDriver());
+            wait.set(new AdaptiveWait(driver.get()));
+            
+            // Count fetch/XHR from the first document on, so network-idle waits see requests sent before them
+            NetworkIdleUtils.install(leased.getDriver());
+            
+            // Resolve the screenshot policy from @CaptureScreenshots or screenshot.policy
+            CapturePolicyEngine.beginTest(getClass(), testMethod);
+            
+            // Block third-party requests and throttle the network as declared in test.properties
+            if (NetworkShaping.isEnabled()) {
+                NetworkShaping.apply(leased.getDriver());
+            }
+            
+            // Optionally record a timeline trace of Java spans and the browser's DevTools trace
+            if (TraceRecorder.isEnabled()) {
+                TraceRecorder.start(leased.getDriver(), getClass().getSimpleName() + "." + testMethod.getName());
+            }
+            
+            // Optionally write the test's network traffic to a HAR file
+            if (HarRecorder.isEnabled()) {
+                HarRecorder.start(leased.getDriver(), getClass().getSimpleName() + "." + testMethod.getName());
+            }
+        } catch (RuntimeException e) {
+            // @AfterMethod does not run after a failed setUp, so give the lease back here
+            discardRecorders();
+            releaseSession();
+            throw e;
+        }
     }
     
     @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
-            driver.quit();
+    public void tearDown(ITestResult result) {
+        try {
+            // Capture the final state if the screenshot policy still owes one
+            ExtentReportUtils.finishScreenshots(getDriver());
+            
+            // Collect the timeline trace and network capture while the browser is still leased
+            Path trace = TraceRecorder.finish();
+            if (trace != null) {
+                logInfo("Timeline trace: " + trace.toAbsolutePath() + " (open in chrome://tracing or ui.perfetto.dev)");
+            }
+            HarRecorder.Result har = HarRecorder.finish();
+            if (har != null) {
+                har.getStepSummaries().forEach(this::logInfo);
+                logInfo("Network capture: " + har.getFile().toAbsolutePath());
+            }
+            String shaping = NetworkShaping.finish();
+            if (shaping != null) {
+                logInfo(shaping);
+            }
+        } finally {
+            // Return the session so it can be reset and reused, even if collecting results failed
+            discardRecorders();
+            releaseSession();
+            ExtentReportUtils.endTest(toStatus(result));
         }
     }
     
     @AfterSuite
     public void tearDownSuite() {
+        // Wait for queued report events and screenshots before collecting statistics
+        ReportEventPipeline.getInstance().drain();
+        
+        // Quit pooled browsers and record pool statistics
+        DriverPool.getInstance().shutdown();
+        SharedBrowserHost.shutdown();
+        SharedDriverService.shutdown();
+        ExtentReportUtils.addSystemInfo(DriverPool.getInstance().getStatistics());
+        ExtentReportUtils.addSystemInfo(Map.of("Screenshots", ScreenshotWriter.getInstance().describeStatistics()));
+        ExtentReportUtils.addSystemInfo(CapturePolicyEngine.getStatistics());
+        ExtentReportUtils.addSystemInfo(RoundTripStatistics.getStatistics());
+        ExtentReportUtils.addSystemInfo(NetworkShaping.getStatistics());
+        
+        // Step latency percentiles, slowest steps first
+        ExtentReportUtils.addSystemInfo(StepLatencyRecorder.getInstance().getStatistics());
+        System.out.println("Step latency exported to " + StepLatencyRecorder.getInstance().export());
+        
+        // Observed wait times; saved so later runs can learn tighter timeouts
+        ExtentReportUtils.addSystemInfo(WaitHistory.getInstance().getStatistics());
+        System.out.println("Wait history saved to " + WaitHistory.getInstance().save());
+        ExtentReportUtils.addSystemInfo(LocatorCache.getStatistics());
+        LocatorCache.save();
+        
         // Flush ExtentReports
         ExtentReportUtils.flushReport();
     }
     
+    private static void releaseSession() {
+        DriverPool.getInstance().release(session.get());
+        session.remove();
+        driver.remove();
+        wait.remove();
+    }
+    
+    /**
+     * Stop per-test recorders and window watchers that are still running, e.g. after a failure while starting or collecting them
+     */
+    private static void discardRecorders() {
+        Runnable[] finishers = {TraceRecorder::finish, HarRecorder::finish, NetworkShaping::finish, WindowWatcher::closeAll};
+        for (Runnable finisher : finishers) {
+            try {
+                finisher.run();
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Could not stop recorder: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static Status toStatus(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return Status.PASS;
+            case ITestResult.SKIP:
+                return Status.SKIP;
+            default:
+                return Status.FAIL;
+        }
+    }
+    
+    /**
+     * Get the WebDriver leased by the current test thread
+     * @return WebDriver - Browser session of the running test
+     */
+    protected WebDriver getDriver() {
+        return driver.get();
+    }
+    
+    /**
+     * Get the WebDriverWait bound to the current test thread's driver
+     * @return WebDriverWait - Wait instance of the running test
+     */
+    protected WebDriverWait getWait() {
+        return wait.get();
+    }
+    
     // ================================
     // COMMON EXTENTREPORTS METHODS
     // ================================
@@ -67,7 +207,7 @@ public class BaseTest {
      * @param category - Category of the test (e.g., "Smoke Test", "Regression Test")
      */
     protected void startTest(String testName, String testDescription, String category) {
-        test = ExtentReportUtils.createTest(testName, testDescription, category);
+        ExtentReportUtils.createTest(testName, testDescription, category);
     }
     
     /**
@@ -76,7 +216,7 @@ public class BaseTest {
      * @param testDescription - Description of the test
      */
     protected void startTest(String testName, String testDescription) {
-        test = ExtentReportUtils.createTest(testName, testDescription);
+        ExtentReportUtils.createTest(testName, testDescription);
     }
     
     /**
@@ -108,7 +248,15 @@ public class BaseTest {
      * @param screenshotName - Name for the screenshot
      */
     protected void takeScreenshot(String screenshotName) {
-        ExtentReportUtils.takeScreenshot(driver, screenshotName);
+        ExtentReportUtils.takeScreenshot(getDriver(), screenshotName);
+    }
+    
+    /**
+     * Take a failure screenshot, captured whatever the screenshot policy
+     * @param screenshotName - Name for the screenshot
+     */
+    protected void takeFailureScreenshot(String screenshotName) {
+        ExtentReportUtils.takeFailureScreenshot(getDriver(), screenshotName);
     }
     
     /**
@@ -117,7 +265,7 @@ public class BaseTest {
      * @param screenshotName - Name for the screenshot
      */
     protected void takeScreenshotWithStep(String stepName, String screenshotName) {
-        ExtentReportUtils.takeScreenshotWithStep(driver, stepName, screenshotName);
+        ExtentReportUtils.takeScreenshotWithStep(getDriver(), stepName, screenshotName);
     }
     
     /**
@@ -125,7 +273,7 @@ public class BaseTest {
      * @param urlName - Name for the URL
      */
     protected void addUrl(String urlName) {
-        ExtentReportUtils.addUrl(driver, urlName);
+        ExtentReportUtils.addUrl(getDriver(), urlName);
     }
     
     /**
@@ -143,18 +291,52 @@ public class BaseTest {
      * @param stepAction - Action to perform
      */
     protected void executeStep(String stepName, Runnable stepAction) {
+        executeStep(stepName, ConfigReader.getIntProperty("roundtrip.budget.default", 0), stepAction);
+    }
+    
+    /**
+     * Execute a test step that fails when it makes more WebDriver round trips than budgeted
+     * @param stepName - Name of the step
+     * @param roundTripBudget - Maximum number of WebDriver commands, 0 for no limit
+     * @param stepAction - Action to perform
+     */
+    protected void executeStep(String stepName, int roundTripBudget, Runnable stepAction) {
+        long start = System.nanoTime();
+        Status stepStatus = Status.FAIL;
+        String previousStep = StepContext.enter(stepName);
+        long commandsBefore = RoundTripStatistics.getThreadCommandCount();
         try {
             logInfo(stepName);
             stepAction.run();
+            assertRoundTripBudget(stepName, roundTripBudget, RoundTripStatistics.getThreadCommandCount() - commandsBefore);
             logPass(stepName + " completed successfully");
+            stepStatus = Status.PASS;
+        } catch (AssertionError e) {
+            // Over-budget steps and assertions made inside the action
+            logFail(stepName + " failed: " + e.getMessage());
+            takeFailureScreenshot("Step failure: " + stepName);
+            throw e;
         } catch (Exception e) {
             logFail(stepName + " failed: " + e.getMessage());
             addException(e);
-            takeScreenshot("Step failure: " + stepName);
+            takeFailureScreenshot("Step failure: " + stepName);
             throw e;
+        } finally {
+            StepContext.exit(previousStep);
+            recordStepTiming(stepName, stepStatus, start);
         }
     }
     
+    /**
+     * Execute a test step under its own screenshot capture policy
+     * @param stepName - Name of the step
+     * @param capturePolicy - Policy applied to screenshots taken inside the step
+     * @param stepAction - Action to perform
+     */
+    protected void executeStep(String stepName, CapturePolicy capturePolicy, Runnable stepAction) {
+        CapturePolicyEngine.withPolicy(capturePolicy, () -> executeStep(stepName, stepAction));
+    }
+    
     /**
      * Execute a test step with automatic logging, screenshot, and assertion
      * @param stepName - Name of the step
@@ -162,19 +344,40 @@ public class BaseTest {
      * @param errorMessage - Error message if assertion fails
      */
     protected void executeAssertion(String stepName, Runnable assertion, String errorMessage) {
+        long start = System.nanoTime();
+        Status stepStatus = Status.FAIL;
+        String previousStep = StepContext.enter(stepName);
         try {
             logInfo(stepName);
             assertion.run();
             logPass(stepName + " assertion passed");
+            stepStatus = Status.PASS;
         } catch (AssertionError e) {
             logFail(stepName + " assertion failed: " + errorMessage);
-            takeScreenshot("Assertion failure: " + stepName);
+            takeFailureScreenshot("Assertion failure: " + stepName);
             throw e;
         } catch (Exception e) {
             logFail(stepName + " failed: " + e.getMessage());
             addException(e);
-            takeScreenshot("Step failure: " + stepName);
+            takeFailureScreenshot("Step failure: " + stepName);
             throw e;
+        } finally {
+            StepContext.exit(previousStep);
+            recordStepTiming(stepName, stepStatus, start);
+        }
+    }
+    
+    private void assertRoundTripBudget(String stepName, int roundTripBudget, long roundTrips) {
+        if (roundTripBudget > 0 && roundTrips > roundTripBudget) {
+            throw new AssertionError(stepName + " made " + roundTrips + " WebDriver round trips, budget is " + roundTripBudget);
         }
     }
+    
+    private static void recordStepTiming(String stepName, Status status, long startNanos) {
+        long endNanos = System.nanoTime();
+        long elapsedNanos = endNanos - startNanos;
+        TraceRecorder.span("step", stepName, startNanos, endNanos);
+        StepLatencyRecorder.getInstance().record(stepName, elapsedNanos);
+        ExtentReportUtils.recordStep(stepName, status, elapsedNanos / 1_000_000);
+    }
 }
@@ -0,0 +1,28 @@
+package com.insider.tests;
+
+import com.insider.utils.ConfigReader;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Applies test.parallel and test.thread.count from test.properties to the suite before it runs
+ * Registered in testng.xml so the same suite file works for serial and parallel runs
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+    
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threadCount = ConfigReader.getThreadCount();
+        for (XmlSuite suite : suites) {
+            if (threadCount > 1) {
+                suite.setParallel(XmlSuite.ParallelMode.METHODS);
+                suite.setThreadCount(threadCount);
+                System.out.println("Running suite '" + suite.getName() + "' in parallel with " + threadCount + " threads");
+            } else {
+                suite.setParallel(XmlSuite.ParallelMode.NONE);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.insider.utils;
+
+import com.insider.reporting.TraceRecorder;
+import com.insider.reporting.WaitHistory;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait with backoff polling and timeouts learned from previous runs
+ * Polling starts at wait.poll.initial.ms and grows by wait.poll.backoff up to wait.poll.max.ms,
+ * so fast conditions return within milliseconds while slow ones are not hammered.
+ * Every wait is timed, recorded in {@link WaitHistory} and shown as a span on the timeline trace
+ */
+public class AdaptiveWait extends WebDriverWait {
+    private final Duration defaultTimeout;
+    private final BackoffSleeper sleeper;
+    
+    /**
+     * Constructor for AdaptiveWait with the timeout from wait.timeout.default (seconds)
+     * @param driver - WebDriver instance
+     */
+    public AdaptiveWait(WebDriver driver) {
+        this(driver, Duration.ofSeconds(ConfigReader.getIntProperty("wait.timeout.default", 10)));
+    }
+    
+    /**
+     * Constructor for AdaptiveWait
+     * @param driver - WebDriver instance
+     * @param defaultTimeout - Timeout used until history is available, and the upper bound afterwards
+     */
+    public AdaptiveWait(WebDriver driver, Duration defaultTimeout) {
+        this(driver, defaultTimeout, new BackoffSleeper());
+    }
+    
+    private AdaptiveWait(WebDriver driver, Duration defaultTimeout, BackoffSleeper sleeper) {
+        super(driver, defaultTimeout, sleeper.initial, Clock.systemDefaultZone(), sleeper);
+        this.defaultTimeout = defaultTimeout;
+        this.sleeper = sleeper;
+    }
+    
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        String key = describe(isTrue);
+        Duration timeout = WaitHistory.getInstance().timeoutFor(key, defaultTimeout);
+        withTimeout(timeout);
+        sleeper.reset();
+        long start = System.nanoTime();
+        boolean satisfied = false;
+        try {
+            V value = super.until(isTrue);
+            satisfied = true;
+            return value;
+        } finally {
+            long end = System.nanoTime();
+            WaitHistory.getInstance().record(key, end - start, satisfied);
+            TraceRecorder.span("wait", key, start, end);
+            System.out.println("Wait " + (satisfied ? "satisfied" : "timed out") + " after " + (end - start) / 1_000_000
+                    + " ms (timeout " + timeout.toMillis() + " ms, " + sleeper.polls + " polls): " + key);
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * Key of a condition: the ExpectedConditions description, or the calling page-object line for lambdas
+     */
+    private static String describe(Function<?, ?> condition) {
+        String description = String.valueOf(condition);
+        if (!description.contains("$$Lambda")) {
+            // Element descriptions embed the session, e.g. [[ChromeDriver: ... (id)] -> id: foo]
+            return description.replaceAll("\\[\\[[^\\]]*\\] -> ", "[");
+        }
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.insider.")
+                        && !frame.getClassName().equals(AdaptiveWait.class.getName()))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse(description));
+    }
+    
+    /**
+     * Sleeper that ignores the fixed interval and backs off from a short initial poll
+     */
+    private static class BackoffSleeper implements Sleeper {
+        private final Duration initial = Duration.ofMillis(ConfigReader.getIntProperty("wait.poll.initial.ms", 10));
+        private final long maxMillis = ConfigReader.getIntProperty("wait.poll.max.ms", 500);
+        private final double backoff = Double.parseDouble(ConfigReader.getProperty("wait.poll.backoff", "1.5"));
+        private double nextMillis;
+        private int polls;
+        
+        void reset() {
+            nextMillis = initial.toMillis();
+            polls = 0;
+        }
+        
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            polls++;
+            Thread.sleep((long) nextMillis);
+            nextMillis = Math.min(maxMillis, nextMillis * backoff);
+        }
+    }
+}
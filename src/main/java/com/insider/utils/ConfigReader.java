@@ -23,11 +23,49 @@ public class ConfigReader {
     
     /**
      * Get a property value by key
+     * System properties (-Dkey=value) take precedence over test.properties
      * @param key - Property key
      * @return String - Property value
      */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        String override = System.getProperty(key);
+        return override != null ? override : properties.getProperty(key);
+    }
+    
+    /**
+     * Get a property value by key with a default
+     * @param key - Property key
+     * @param defaultValue - Value returned when the property is missing or blank
+     * @return String - Property value
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+    
+    /**
+     * Get an integer property value by key
+     * @param key - Property key
+     * @param defaultValue - Value returned when the property is missing or not a number
+     * @return int - Property value
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number for " + key + ", using default: " + defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Get a boolean property value by key
+     * @param key - Property key
+     * @param defaultValue - Value returned when the property is missing
+     * @return boolean - Property value
+     */
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
     }
     
     /**
@@ -45,4 +83,15 @@ public class ConfigReader {
     public static String getDepartmentFilter() {
         return getProperty("filter.department");
     }
+    
+    /**
+     * Get the number of test threads, honoring test.parallel and test.thread.count
+     * @return int - 1 for serial runs, test.thread.count for parallel runs
+     */
+    public static int getThreadCount() {
+        if (!getBooleanProperty("test.parallel", false)) {
+            return 1;
+        }
+        return Math.max(1, getIntProperty("test.thread.count", 1));
+    }
 }
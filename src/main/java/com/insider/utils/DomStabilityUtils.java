@@ -0,0 +1,74 @@
+package com.insider.utils;
+
+import com.insider.reporting.TraceRecorder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+
+/**
+ * Utility class for event-driven waits on DOM changes
+ * A MutationObserver on the target container resolves the wait once the subtree has been quiet
+ * for a configurable window, replacing fixed sleeps after filtering and other async updates
+ */
+public class DomStabilityUtils {
+    
+    // Child list and text changes only; class and style churn from animations would never settle
+    private static final String STABILITY_SCRIPT =
+        "const done = arguments[arguments.length - 1];" +
+        "const quiet = arguments[1];" +
+        "const start = Date.now();" +
+        "const deadline = start + arguments[2];" +
+        "const container = document.querySelector(arguments[0]);" +
+        "const target = container || document.body || document.documentElement;" +
+        "let last = start;" +
+        "let mutations = 0;" +
+        "const observer = new MutationObserver(list => { mutations += list.length; last = Date.now(); });" +
+        "observer.observe(target, {childList: true, subtree: true, characterData: true});" +
+        "function check() {" +
+        "  const now = Date.now();" +
+        "  if (now - last >= quiet || now >= deadline) {" +
+        "    observer.disconnect();" +
+        "    done({stable: now - last >= quiet, found: !!container, mutations: mutations, waited: now - start});" +
+        "    return;" +
+        "  }" +
+        "  setTimeout(check, Math.min(50, quiet));" +
+        "}" +
+        "check();";
+    
+    /**
+     * Wait until a container has stopped changing, using dom.stable.quiet.ms and dom.stable.timeout.ms
+     * @param driver - WebDriver instance
+     * @param cssSelector - Container to observe; the whole body is observed if it is not found
+     * @return boolean - true if the container went quiet, false if the timeout was reached first
+     */
+    public static boolean waitForDomStable(WebDriver driver, String cssSelector) {
+        return waitForDomStable(driver, cssSelector,
+                ConfigReader.getIntProperty("dom.stable.quiet.ms", 500),
+                ConfigReader.getIntProperty("dom.stable.timeout.ms", 10000));
+    }
+    
+    /**
+     * Wait until a container has had no DOM mutations for a quiet window
+     * @param driver - WebDriver instance
+     * @param cssSelector - Container to observe; the whole body is observed if it is not found
+     * @param quietMillis - How long the subtree must stay unchanged
+     * @param timeoutMillis - Upper bound of the wait
+     * @return boolean - true if the container went quiet, false if the timeout was reached first
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean waitForDomStable(WebDriver driver, String cssSelector, long quietMillis, long timeoutMillis) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                    .executeAsyncScript(STABILITY_SCRIPT, cssSelector, quietMillis, timeoutMillis);
+            boolean stable = Boolean.TRUE.equals(result.get("stable"));
+            System.out.println((stable ? "DOM stable: " : "Warning: DOM still changing: ") + cssSelector
+                    + (Boolean.TRUE.equals(result.get("found")) ? "" : " (not found, observed body)")
+                    + " after " + result.get("waited") + " ms, " + result.get("mutations") + " mutations");
+            return stable;
+        } finally {
+            TraceRecorder.span("wait", "DOM stable: " + cssSelector, start, System.nanoTime());
+        }
+    }
+}
@@ -4,8 +4,15 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.By;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for common element operations
@@ -70,24 +77,179 @@ public class ElementUtils {
     
     /**
      * Find element with multiple fallback locators
+     * All locators are raced in one in-page lookup per poll, so a miss on the primary
+     * locator costs no extra timeout and a total miss costs a single one
      * @param wait - WebDriverWait instance
-     * @param primaryLocator - Primary locator to try first
+     * @param primaryLocator - Primary locator, preferred and required to be clickable
      * @param textLocator - Text-based fallback locator
      * @param hrefLocator - Href-based fallback locator
      * @param elementName - Name of the element for logging
      * @return WebElement - Found element
      */
     public static WebElement findElementWithFallback(WebDriverWait wait, By primaryLocator, By textLocator, By hrefLocator, String elementName) {
+        Map<String, By> strategies = new LinkedHashMap<>();
+        strategies.put("primary", primaryLocator);
+        strategies.put("text", textLocator);
+        strategies.put("href", hrefLocator);
+        return findFirstMatching(wait, strategies, true, elementName);
+    }
+    
+    /**
+     * Find the first element matched by any of several locators
+     * Each poll evaluates every locator in a single script, in order, and returns the first match
+     * @param wait - WebDriverWait instance, its timeout bounds the whole search
+     * @param strategies - Strategy name to locator, in order of preference
+     * @param firstClickable - true if a match of the first locator only counts once it is clickable
+     * @param elementName - Name of the element for logging
+     * @return WebElement - Found element
+     */
+    public static WebElement findFirstMatching(WebDriverWait wait, Map<String, By> strategies, boolean firstClickable, String elementName) {
+        String clickableStrategy = firstClickable && !strategies.isEmpty() ? strategies.keySet().iterator().next() : null;
+        return race(wait, null, strategies, clickableStrategy, elementName).element;
+    }
+    
+    /**
+     * Find an element with the strategy that worked last time, falling back to the others
+     * The winning strategy and a fingerprint of the element are kept in the {@link LocatorCache};
+     * an entry is healed when another strategy wins, and evicted when no strategy matches or the
+     * cached strategy now finds an element with a different fingerprint
+     * @param wait - WebDriverWait instance, its timeout bounds the whole search
+     * @param root - Element to search within, or null for the whole page
+     * @param page - Page object name used in the cache key
+     * @param elementName - Logical element name used in the cache key and for logging
+     * @param strategies - Strategy name to locator, in default order of preference
+     * @param clickableStrategy - Strategy whose match only counts once it is clickable, wherever the cache
+     *                            ranks it, or null if no match needs to be clickable
+     * @param lastResortStrategy - Catch-all strategy that is always tried last and never cached, or null
+     * @return WebElement - Found element
+     */
+    public static WebElement findCachedElement(WebDriverWait wait, WebElement root, String page, String elementName,
+                                               Map<String, By> strategies, String clickableStrategy, String lastResortStrategy) {
+        Map<String, By> ordered = LocatorCache.order(page, elementName, strategies, lastResortStrategy);
+        LocatorRace race;
         try {
-            return wait.until(ExpectedConditions.elementToBeClickable(primaryLocator));
-        } catch (Exception e1) {
-            try {
-                System.out.println(elementName + " found with text locator");
-                return wait.until(ExpectedConditions.presenceOfElementLocated(textLocator));
-            } catch (Exception e2) {
-                System.out.println(elementName + " found with href locator");
-                return wait.until(ExpectedConditions.presenceOfElementLocated(hrefLocator));
+            race = race(wait, root, ordered, clickableStrategy, elementName);
+            if (!LocatorCache.matches(page, elementName, race.winner, race.fingerprint)) {
+                // The cached strategy now finds a different element; forget it and search in default order
+                LocatorCache.evict(page, elementName);
+                if (ordered != strategies) {
+                    race = race(wait, root, strategies, clickableStrategy, elementName);
+                }
+            }
+        } catch (TimeoutException e) {
+            LocatorCache.evict(page, elementName);
+            throw e;
+        }
+        if (race.winner.equals(lastResortStrategy)) {
+            LocatorCache.evict(page, elementName);
+        } else {
+            LocatorCache.record(page, elementName, race.winner, race.fingerprint);
+        }
+        return race.element;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    private static LocatorRace race(WebDriverWait wait, WebElement root, Map<String, By> strategies, String clickableStrategy, String elementName) {
+        LocatorRace race = new LocatorRace(root, strategies, clickableStrategy, elementName);
+        long start = System.nanoTime();
+        wait.until(race);
+        System.out.println(elementName + " found with " + race.winner + " locator in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return race;
+    }
+    
+    /**
+     * Wait condition that evaluates all candidate locators in one round trip
+     * Locators without an XPath or CSS form are looked up with findElements in the same poll
+     */
+    private static class LocatorRace implements ExpectedCondition<WebElement> {
+        private static final String RACE_SCRIPT =
+            "const candidates = arguments[0];" +
+            "const root = arguments[1] || document;" +
+            "for (let i = 0; i < candidates.length; i++) {" +
+            "  const candidate = candidates[i];" +
+            "  if (!candidate) { continue; }" +
+            "  let element = null;" +
+            "  try {" +
+            "    element = candidate.using === 'xpath'" +
+            "      ? document.evaluate(candidate.value, root, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue" +
+            "      : root.querySelector(candidate.value);" +
+            "  } catch (e) { continue; }" +
+            "  if (!element) { continue; }" +
+            "  if (candidate.clickable && (element.disabled || !element.getClientRects().length" +
+            "      || getComputedStyle(element).visibility === 'hidden')) { continue; }" +
+            "  const text = (element.textContent || '').replace(/\\s+/g, ' ').trim().substring(0, 60);" +
+            "  return [element, i, element.tagName.toLowerCase() + '|' + text];" +
+            "}" +
+            "return null;";
+        
+        private final List<String> names = new ArrayList<>();
+        private final List<By> locators = new ArrayList<>();
+        private final List<Map<String, Object>> candidates = new ArrayList<>();
+        private final WebElement root;
+        private final String elementName;
+        private WebElement element;
+        private String winner;
+        private String fingerprint;
+        
+        LocatorRace(WebElement root, Map<String, By> strategies, String clickableStrategy, String elementName) {
+            this.root = root;
+            this.elementName = elementName;
+            strategies.forEach((name, locator) -> {
+                names.add(name);
+                locators.add(locator);
+                candidates.add(toCandidate(locator, name.equals(clickableStrategy)));
+            });
+        }
+        
+        @Override
+        public WebElement apply(WebDriver driver) {
+            List<?> found = (List<?>) ((JavascriptExecutor) driver).executeScript(RACE_SCRIPT, candidates, root);
+            int inPage = found != null ? ((Number) found.get(1)).intValue() : candidates.size();
+            // Locators the page cannot evaluate, only when they rank above the in-page match
+            for (int i = 0; i < inPage; i++) {
+                if (candidates.get(i) == null) {
+                    List<WebElement> elements = root != null ? root.findElements(locators.get(i)) : driver.findElements(locators.get(i));
+                    if (!elements.isEmpty()) {
+                        element = elements.get(0);
+                        winner = names.get(i);
+                        String text = element.getText().replaceAll("\\s+", " ").trim();
+                        fingerprint = element.getTagName() + "|" + text.substring(0, Math.min(60, text.length()));
+                        return element;
+                    }
+                }
+            }
+            if (found == null) {
+                return null;
+            }
+            element = (WebElement) found.get(0);
+            winner = names.get(inPage);
+            fingerprint = (String) found.get(2);
+            return element;
+        }
+        
+        @Override
+        public String toString() {
+            return "any of " + String.join("/", names) + " locators for " + elementName;
+        }
+        
+        private static Map<String, Object> toCandidate(By locator, boolean clickable) {
+            if (!(locator instanceof By.Remotable)) {
+                return null;
+            }
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            String using = parameters.using();
+            if (!"xpath".equals(using) && !"css selector".equals(using)) {
+                return null;
             }
+            Map<String, Object> candidate = new LinkedHashMap<>();
+            candidate.put("using", using);
+            candidate.put("value", parameters.value());
+            candidate.put("clickable", clickable);
+            return candidate;
         }
     }
 }
@@ -1,95 +1,113 @@
 package com.insider.utils;
 
 import com.aventstack.extentreports.ExtentReports;
-import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
-import com.aventstack.extentreports.markuputils.ExtentColor;
-import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.insider.history.RunHistory;
+import com.insider.history.RunHistorySink;
+import com.insider.reporting.CapturePolicyEngine;
+import com.insider.reporting.ExtentReportSink;
+import com.insider.reporting.ReportEvent;
+import com.insider.reporting.ReportEventPipeline;
+import com.insider.reporting.ScreenshotWriter;
+import com.insider.reporting.ShardBundle;
+import com.insider.reporting.StreamingReportSink;
+import com.insider.reporting.TestIdentity;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
+import java.awt.Rectangle;
 import java.io.File;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for ExtentReports functionality
+ * Logging calls only enqueue events, ExtentReports itself is updated by ReportEventPipeline
  */
 public class ExtentReportUtils {
     
     private static ExtentReports extent;
-    private static ExtentTest test;
+    private static final ThreadLocal<TestIdentity> currentTest = new ThreadLocal<>();
     private static String reportPath;
+    private static boolean initialized;
+    private static String reportName;
     
     /**
-     * Initialize ExtentReports
+     * Initialize ExtentReports and the streaming event log
+     * Either writer can be switched off with report.extent.enabled / report.stream.enabled;
+     * with ExtentReports disabled the run keeps no per-test state in memory
      * @param reportName - Name for the report
-     * @return ExtentReports instance
+     * @return ExtentReports instance, or null when the Extent report is disabled
      */
-    public static ExtentReports initializeExtentReport(String reportName) {
-        if (extent == null) {
-            // Clean old reports before creating new one
-            cleanOldReports();
+    public static synchronized ExtentReports initializeExtentReport(String reportName) {
+        if (!initialized) {
+            initialized = true;
+            ExtentReportUtils.reportName = reportName;
+            ReportEventPipeline pipeline = ReportEventPipeline.getInstance();
             
-            // Use fixed filename to keep only recent result
-            reportPath = "test-output/ExtentReports/" + reportName + ".html";
-            
-            // Create ExtentSparkReporter
-            ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+            if (ShardBundle.isSharded()) {
+                // A shard always writes its bundle, the merge tool builds the combined report from it
+                ShardBundle.writeManifest(reportName, false);
+                pipeline.addSink(new StreamingReportSink(ShardBundle.getDirectory()));
+            } else if (ConfigReader.getBooleanProperty("report.stream.enabled", true)) {
+                // Stream every event to disk as it happens so the run can be watched live
+                pipeline.addSink(new StreamingReportSink(
+                        Paths.get(ConfigReader.getProperty("report.stream.dir", "test-output/stream"))));
+            }
             
-            // Configure the report
-            sparkReporter.config().setDocumentTitle("Insider Test Automation Report");
-            sparkReporter.config().setReportName(reportName);
-            sparkReporter.config().setTheme(Theme.STANDARD);
-            sparkReporter.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+            if (ConfigReader.getBooleanProperty("history.enabled", true)) {
+                // Results are kept across runs in the history store instead of old report files
+                pipeline.addSink(new RunHistorySink(RunHistory.fromConfig()));
+            }
             
-            // Create ExtentReports instance
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
+            if (ConfigReader.getBooleanProperty("report.extent.enabled", true)) {
+                // Use fixed filename to keep only recent result, one file per shard when the run is split
+                reportPath = "test-output/ExtentReports/" + reportName
+                        + (ShardBundle.isSharded() ? " - " + ShardBundle.getShardId() : "") + ".html";
+                
+                // Create ExtentSparkReporter
+                ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
+                
+                // Configure the report
+                sparkReporter.config().setDocumentTitle("Insider Test Automation Report");
+                sparkReporter.config().setReportName(reportName);
+                sparkReporter.config().setTheme(Theme.STANDARD);
+                sparkReporter.config().setTimeStampFormat("MMM dd, yyyy HH:mm:ss");
+                
+                // Create ExtentReports instance
+                extent = new ExtentReports();
+                extent.attachReporter(sparkReporter);
+                
+                // Report events are applied to ExtentReports by the pipeline's consumer thread
+                pipeline.addSink(new ExtentReportSink(extent, Paths.get(reportPath).getParent()));
+            }
             
             // Set system information
-            extent.setSystemInfo("OS", System.getProperty("os.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("User", System.getProperty("user.name"));
-            extent.setSystemInfo("Project", "Insider Test Automation");
+            addSystemInfo(Map.of(
+                    "OS", System.getProperty("os.name"),
+                    "Java Version", System.getProperty("java.version"),
+                    "User", System.getProperty("user.name"),
+                    "Project", "Insider Test Automation"));
         }
         return extent;
     }
     
-    /**
-     * Clean old ExtentReports files to keep only recent results
-     */
-    private static void cleanOldReports() {
-        try {
-            File reportsDir = new File("test-output/ExtentReports/");
-            if (reportsDir.exists() && reportsDir.isDirectory()) {
-                File[] files = reportsDir.listFiles((dir, name) -> name.endsWith(".html"));
-                if (files != null) {
-                    for (File file : files) {
-                        if (file.delete()) {
-                            System.out.println("Deleted old report: " + file.getName());
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("Warning: Could not clean old reports: " + e.getMessage());
-        }
-    }
-    
     /**
      * Create a new test
      * @param testName - Name of the test
      * @param testDescription - Description of the test
-     * @return ExtentTest instance
+     * @return TestIdentity - Handle of the reported test
      */
-    public static ExtentTest createTest(String testName, String testDescription) {
-        test = extent.createTest(testName, testDescription);
-        return test;
+    public static TestIdentity createTest(String testName, String testDescription) {
+        return createTest(testName, testDescription, null);
     }
     
     /**
@@ -97,22 +115,42 @@ public class ExtentReportUtils {
      * @param testName - Name of the test
      * @param testDescription - Description of the test
      * @param category - Category of the test
-     * @return ExtentTest instance
+     * @return TestIdentity - Handle of the reported test
      */
-    public static ExtentTest createTest(String testName, String testDescription, String category) {
-        test = extent.createTest(testName, testDescription).assignCategory(category);
+    public static TestIdentity createTest(String testName, String testDescription, String category) {
+        TestIdentity test = new TestIdentity(testName);
+        currentTest.set(test);
+        publish(ReportEvent.testStarted(test, testDescription, category));
         return test;
     }
     
+    /**
+     * Get the test started by the current thread
+     * @return TestIdentity of the running test, or null if no test was started
+     */
+    public static TestIdentity getTest() {
+        return currentTest.get();
+    }
+    
+    /**
+     * Finish the current thread's test and detach the thread from it
+     * @param status - Final status of the test
+     */
+    public static void endTest(Status status) {
+        TestIdentity test = currentTest.get();
+        if (test != null) {
+            publish(ReportEvent.testFinished(test, status));
+            currentTest.remove();
+        }
+    }
+    
     
     /**
      * Log an info step
      * @param stepName - Name of the step
      */
     public static void logInfo(String stepName) {
-        if (test != null) {
-            test.log(Status.INFO, stepName);
-        }
+        log(Status.INFO, stepName);
     }
     
     /**
@@ -120,9 +158,7 @@ public class ExtentReportUtils {
      * @param stepName - Name of the step
      */
     public static void logPass(String stepName) {
-        if (test != null) {
-            test.log(Status.PASS, stepName);
-        }
+        log(Status.PASS, stepName);
     }
     
     /**
@@ -130,31 +166,106 @@ public class ExtentReportUtils {
      * @param stepName - Name of the step
      */
     public static void logFail(String stepName) {
+        log(Status.FAIL, stepName);
+    }
+    
+    /**
+     * Log a step with the given status
+     * @param status - Log status
+     * @param message - Log message
+     */
+    public static void log(Status status, String message) {
+        TestIdentity test = currentTest.get();
         if (test != null) {
-            test.log(Status.FAIL, stepName);
+            publish(ReportEvent.log(test, status, message));
+        }
+    }
+    
+    /**
+     * Record the outcome and duration of a test step for the run history
+     * @param stepName - Name of the step
+     * @param status - Step outcome
+     * @param durationMillis - Step duration in milliseconds
+     */
+    public static void recordStep(String stepName, Status status, long durationMillis) {
+        TestIdentity test = currentTest.get();
+        if (test != null) {
+            publish(ReportEvent.step(test, stepName, status, durationMillis));
         }
     }
     
     
     /**
-     * Take screenshot and attach to report
+     * Take screenshot and attach to report, if the active capture policy allows it
+     * Only the capture runs on the calling thread, encoding and writing happen in the background
      * @param driver - WebDriver instance
      * @param screenshotName - Name for the screenshot
      */
     public static void takeScreenshot(WebDriver driver, String screenshotName) {
-        if (test != null && driver != null) {
-            try {
-                TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-                String screenshotPath = takesScreenshot.getScreenshotAs(OutputType.BASE64);
-                test.addScreenCaptureFromBase64String(screenshotPath, screenshotName);
-            } catch (Exception e) {
-                if (test != null) {
-                    test.log(Status.WARNING, "Failed to take screenshot: " + e.getMessage());
-                }
-            }
+        takeScreenshot(driver, screenshotName, null);
+    }
+    
+    /**
+     * Take screenshot clipped to an element and attach to report, if the active capture policy allows it
+     * @param driver - WebDriver instance
+     * @param screenshotName - Name for the screenshot
+     * @param element - Element to clip the screenshot to, or null for the full viewport
+     */
+    public static void takeScreenshot(WebDriver driver, String screenshotName, WebElement element) {
+        if (currentTest.get() != null && driver != null && CapturePolicyEngine.shouldCapture(driver, false)) {
+            captureScreenshot(driver, screenshotName, element);
+        }
+    }
+    
+    /**
+     * Take a failure screenshot, captured whatever the screenshot policy
+     * @param driver - WebDriver instance
+     * @param screenshotName - Name for the screenshot
+     */
+    public static void takeFailureScreenshot(WebDriver driver, String screenshotName) {
+        if (currentTest.get() != null && driver != null && CapturePolicyEngine.shouldCapture(driver, true)) {
+            captureScreenshot(driver, screenshotName, null);
         }
     }
     
+    /**
+     * Capture the final state of a test when its screenshot policy still owes one
+     * @param driver - WebDriver instance
+     */
+    public static void finishScreenshots(WebDriver driver) {
+        if (CapturePolicyEngine.finishTest() && currentTest.get() != null && driver != null) {
+            captureScreenshot(driver, "Final state", null);
+        }
+    }
+    
+    private static void captureScreenshot(WebDriver driver, String screenshotName, WebElement element) {
+        TestIdentity test = currentTest.get();
+        try {
+            long start = System.nanoTime();
+            Rectangle clip = element != null ? getDevicePixelBounds(driver, element) : null;
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            CapturePolicyEngine.recordCapture(System.nanoTime() - start);
+            publish(ReportEvent.screenshot(test, screenshotName, ScreenshotWriter.getInstance().submit(png, clip)));
+        } catch (Exception e) {
+            log(Status.WARNING, "Failed to take screenshot: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get an element's bounds within the viewport screenshot, in device pixels
+     * @param driver - WebDriver instance
+     * @param element - Element to measure
+     * @return Rectangle - Element bounds
+     */
+    @SuppressWarnings("unchecked")
+    private static Rectangle getDevicePixelBounds(WebDriver driver, WebElement element) {
+        List<Number> bounds = (List<Number>) ((JavascriptExecutor) driver).executeScript(
+            "var r = arguments[0].getBoundingClientRect(), d = window.devicePixelRatio || 1; " +
+            "return [r.left * d, r.top * d, r.width * d, r.height * d];", element);
+        return new Rectangle(bounds.get(0).intValue(), bounds.get(1).intValue(),
+            bounds.get(2).intValue(), bounds.get(3).intValue());
+    }
+    
     /**
      * Take screenshot and attach to report with step
      * @param driver - WebDriver instance
@@ -173,14 +284,13 @@ public class ExtentReportUtils {
      * @param urlName - Name for the URL
      */
     public static void addUrl(WebDriver driver, String urlName) {
+        TestIdentity test = currentTest.get();
         if (test != null && driver != null) {
             try {
                 String currentUrl = driver.getCurrentUrl();
-                test.info(MarkupHelper.createLabel("Current URL: " + currentUrl, ExtentColor.BLUE));
+                publish(ReportEvent.label(test, "Current URL: " + currentUrl));
             } catch (Exception e) {
-                if (test != null) {
-                    test.log(Status.WARNING, "Failed to add URL: " + e.getMessage());
-                }
+                log(Status.WARNING, "Failed to add URL: " + e.getMessage());
             }
         }
     }
@@ -191,26 +301,56 @@ public class ExtentReportUtils {
      * @param exception - Exception to add
      */
     public static void addException(Throwable exception) {
+        TestIdentity test = currentTest.get();
         if (test != null) {
-            test.fail(exception);
+            publish(ReportEvent.exception(test, exception));
         }
     }
     
+    private static void publish(ReportEvent event) {
+        ReportEventPipeline.getInstance().publish(event);
+    }
+    
     /**
-     * Flush the report
+     * Add system information entries to the report dashboard
+     * @param info - Map of entry name to value
+     */
+    public static void addSystemInfo(Map<String, String> info) {
+        info.forEach((name, value) -> ReportEventPipeline.getInstance().publish(ReportEvent.systemInfo(name, value)));
+    }
+    
+    /**
+     * Flush the report once every queued event has been applied
      */
     public static void flushReport() {
-        if (extent != null) {
-            extent.flush();
+        if (initialized) {
+            ReportEventPipeline.getInstance().flush();
+            if (ShardBundle.isSharded()) {
+                ShardBundle.writeManifest(reportName, true);
+            }
         }
     }
     
     /**
      * Manually clean all old ExtentReports files
-     * Call this method if you want to clean reports manually
+     * Manual only: reports are kept between runs and the run history store tracks results over time
      */
     public static void cleanAllReports() {
-        cleanOldReports();
+        try {
+            File reportsDir = new File("test-output/ExtentReports/");
+            if (reportsDir.exists() && reportsDir.isDirectory()) {
+                File[] files = reportsDir.listFiles((dir, name) -> name.endsWith(".html"));
+                if (files != null) {
+                    for (File file : files) {
+                        if (file.delete()) {
+                            System.out.println("Deleted old report: " + file.getName());
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Warning: Could not clean old reports: " + e.getMessage());
+        }
         System.out.println("All old ExtentReports have been cleaned.");
     }
 }
@@ -0,0 +1,35 @@
+package com.insider.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.util.Map;
+
+/**
+ * Utility class for compact JSON serialization, backed by Selenium's JSON support
+ */
+public class JsonUtils {
+    private static final Json JSON = new Json();
+    
+    /**
+     * Serialize a value as single-line JSON
+     * @param value - Map, list, string, number or boolean
+     * @return String - JSON text without line breaks
+     */
+    public static String toJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json)) {
+            output.setPrettyPrint(false).write(value);
+        }
+        return json.toString();
+    }
+    
+    /**
+     * Parse a JSON object
+     * @param json - JSON text
+     * @return Map - Parsed object
+     */
+    public static Map<String, Object> parseMap(String json) {
+        return JSON.toType(json, Json.MAP_TYPE);
+    }
+}
@@ -0,0 +1,201 @@
+package com.insider.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of the locator strategy that found each logical element
+ * Entries are keyed by page and element name and hold the winning strategy with a fingerprint
+ * of the element it matched (tag and normalised text). Lookups try the cached strategy first;
+ * an entry is replaced when another strategy wins, and evicted when nothing matches or the cached
+ * strategy finds an element with a different fingerprint. Catch-all strategies are never cached
+ */
+public class LocatorCache {
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong healed = new AtomicLong();
+    private static final AtomicLong evicted = new AtomicLong();
+    private static volatile boolean loaded;
+    
+    /**
+     * Order strategies so the cached winner is tried first
+     * @param page - Page object name
+     * @param elementName - Logical element name
+     * @param strategies - Strategy name to locator, in default order of preference
+     * @param lastResortStrategy - Catch-all strategy that is never moved to the front, or null
+     * @param <T> - Locator type
+     * @return Map - Strategies with the cached winner first, or unchanged when nothing is cached
+     */
+    public static <T> Map<String, T> order(String page, String elementName, Map<String, T> strategies, String lastResortStrategy) {
+        Entry entry = get(page, elementName);
+        if (entry == null || !strategies.containsKey(entry.strategy) || entry.strategy.equals(lastResortStrategy)) {
+            return strategies;
+        }
+        Map<String, T> ordered = new LinkedHashMap<>();
+        ordered.put(entry.strategy, strategies.get(entry.strategy));
+        ordered.putAll(strategies);
+        return ordered;
+    }
+    
+    /**
+     * Check a match against the cache entry of its element
+     * @param page - Page object name
+     * @param elementName - Logical element name
+     * @param strategy - Strategy that found the element
+     * @param fingerprint - Fingerprint of the matched element
+     * @return boolean - false if the cached strategy matched an element with a different fingerprint
+     */
+    public static boolean matches(String page, String elementName, String strategy, String fingerprint) {
+        Entry entry = get(page, elementName);
+        if (entry == null || !entry.strategy.equals(strategy) || entry.fingerprint.equals(fingerprint)) {
+            return true;
+        }
+        System.out.println("Warning: " + key(page, elementName) + " now matches a different element: "
+                + entry.fingerprint + " -> " + fingerprint);
+        return false;
+    }
+    
+    /**
+     * Record the strategy that found an element
+     * @param page - Page object name
+     * @param elementName - Logical element name
+     * @param strategy - Winning strategy
+     * @param fingerprint - Fingerprint of the matched element
+     */
+    public static void record(String page, String elementName, String strategy, String fingerprint) {
+        if (!isEnabled()) {
+            return;
+        }
+        String key = key(page, elementName);
+        Entry previous = get(page, elementName);
+        if (previous == null) {
+            System.out.println("Locator cache learned " + key + " -> " + strategy);
+        } else if (!previous.strategy.equals(strategy)) {
+            healed.incrementAndGet();
+            System.out.println("Locator cache healed " + key + ": " + previous.strategy + " -> " + strategy);
+        } else {
+            hits.incrementAndGet();
+        }
+        entries.put(key, new Entry(strategy, fingerprint));
+    }
+    
+    /**
+     * Drop an entry whose element could not be found with any strategy
+     * @param page - Page object name
+     * @param elementName - Logical element name
+     */
+    public static void evict(String page, String elementName) {
+        if (isEnabled() && entries.remove(key(page, elementName)) != null) {
+            evicted.incrementAndGet();
+            System.out.println("Locator cache evicted " + key(page, elementName));
+        }
+    }
+    
+    /**
+     * Write the cache to locator.cache.file
+     * @return Path - Written file, or null when the cache is disabled
+     */
+    public static Path save() {
+        if (!isEnabled()) {
+            return null;
+        }
+        // Keep entries of elements this run never looked up
+        load();
+        Map<String, Object> json = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> json.put(key, Map.of("strategy", entry.strategy, "fingerprint", entry.fingerprint)));
+        Path file = getFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, JsonUtils.toJson(json), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not save locator cache to " + file + ": " + e.getMessage());
+        }
+        return file;
+    }
+    
+    /**
+     * Summarise cache use for the report dashboard
+     * @return Map - Statistic name to value
+     */
+    public static Map<String, String> getStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        if (isEnabled()) {
+            statistics.put("Locator Cache", entries.size() + " entries, " + hits.get() + " hits, "
+                    + healed.get() + " healed, " + evicted.get() + " evicted");
+        }
+        return statistics;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * Cached winner of one logical element
+     */
+    private static class Entry {
+        private final String strategy;
+        private final String fingerprint;
+        
+        Entry(String strategy, String fingerprint) {
+            this.strategy = strategy;
+            this.fingerprint = fingerprint;
+        }
+    }
+    
+    private static Entry get(String page, String elementName) {
+        if (!isEnabled()) {
+            return null;
+        }
+        load();
+        return entries.get(key(page, elementName));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (LocatorCache.class) {
+            if (loaded) {
+                return;
+            }
+            Path file = getFile();
+            if (Files.exists(file)) {
+                try {
+                    JsonUtils.parseMap(Files.readString(file, StandardCharsets.UTF_8)).forEach((key, value) -> {
+                        Map<String, Object> entry = (Map<String, Object>) value;
+                        entries.putIfAbsent(key, new Entry((String) entry.get("strategy"), (String) entry.get("fingerprint")));
+                    });
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Warning: Ignoring unreadable locator cache " + file + ": " + e.getMessage());
+                }
+            }
+            loaded = true;
+        }
+    }
+    
+    private static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("locator.cache.enabled", true);
+    }
+    
+    private static Path getFile() {
+        return Paths.get(ConfigReader.getProperty("locator.cache.file", "test-output/history/locators.json"));
+    }
+    
+    private static String key(String page, String elementName) {
+        return page + "/" + elementName;
+    }
+}
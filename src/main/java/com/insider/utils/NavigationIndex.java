@@ -0,0 +1,271 @@
+package com.insider.utils;
+
+import com.insider.reporting.TraceRecorder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the site's mega-menu: main tab to sub-item to href
+ * The whole menu is read with one in-page script instead of hovering every tab, then kept per
+ * session and site. With nav.map.ttl.minutes above 0 the index is also written to nav.map.file and
+ * reused by later runs until it expires
+ */
+public class NavigationIndex {
+    // Keyed by the pooled (undecorated) session; page objects get a new decorated proxy per test
+    private static final Map<WebDriver, Map<String, NavigationIndex>> sessions =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    
+    // Each main tab's menu is the panel named by its aria-controls, else the closest ancestor holding
+    // other links. A menu that also holds another main tab is the nav bar, not a dropdown, so that tab
+    // is left out and looked up on the page instead; hidden menus are read from textContent
+    private static final String INDEX_SCRIPT =
+        "const normalize = s => (s || '').replace(/\\s+/g, ' ').trim();" +
+        "const links = Array.from(document.querySelectorAll('a'));" +
+        "const anchors = new Map();" +
+        "for (const tab of arguments[0]) {" +
+        "  const anchor = links.find(a => normalize(a.textContent) === tab);" +
+        "  if (anchor) { anchors.set(tab, anchor); }" +
+        "}" +
+        "const index = {};" +
+        "for (const [tab, anchor] of anchors) {" +
+        "  let menu = document.getElementById(anchor.getAttribute('aria-controls') || '');" +
+        "  if (!menu) {" +
+        "    menu = anchor.parentElement;" +
+        "    while (menu && menu !== document.body && menu.querySelectorAll('a').length < 2) { menu = menu.parentElement; }" +
+        "  }" +
+        "  if (!menu || menu === document.body) { continue; }" +
+        "  if (Array.from(anchors.values()).some(other => other !== anchor && menu.contains(other))) { continue; }" +
+        "  const items = {};" +
+        "  for (const a of menu.querySelectorAll('a')) {" +
+        "    const text = normalize(a.textContent);" +
+        "    if (a !== anchor && text && !(text in items)) { items[text] = a.href; }" +
+        "  }" +
+        "  index[tab] = items;" +
+        "}" +
+        "return index;";
+    
+    private final Map<String, Map<String, String>> tabs;
+    private final long createdAt;
+    
+    private NavigationIndex(Map<String, Map<String, String>> tabs, long createdAt) {
+        this.tabs = tabs;
+        this.createdAt = createdAt;
+    }
+    
+    /**
+     * Get the navigation index of the current site, extracting it on first use in this session
+     * @param driver - WebDriver instance, on a page showing the global navigation bar
+     * @param mainTabs - Main tab names to index
+     * @return NavigationIndex - Index, empty if the menu could not be read
+     */
+    public static NavigationIndex get(WebDriver driver, String[] mainTabs) {
+        String site = siteOf(driver);
+        Map<String, NavigationIndex> cached;
+        synchronized (sessions) {
+            cached = sessions.computeIfAbsent(unwrap(driver), key -> new ConcurrentHashMap<>());
+        }
+        NavigationIndex index = cached.get(site);
+        if (index == null) {
+            index = loadFromDisk(site);
+            if (index == null) {
+                index = extract(driver, mainTabs);
+                if (!index.isEmpty()) {
+                    saveToDisk(site, index);
+                }
+            }
+            if (!index.isEmpty()) {
+                cached.put(site, index);
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Forget the index of the current site, e.g. after it pointed at a menu item that no longer exists
+     * @param driver - WebDriver instance
+     */
+    public static void invalidate(WebDriver driver) {
+        String site = siteOf(driver);
+        Map<String, NavigationIndex> cached = sessions.get(unwrap(driver));
+        if (cached != null) {
+            cached.remove(site);
+        }
+        if (getTtlMillis() > 0) {
+            Map<String, Object> stored = readDisk();
+            if (stored.remove(site) != null) {
+                writeDisk(stored);
+            }
+        }
+        System.out.println("Navigation index invalidated for " + site);
+    }
+    
+    /**
+     * Find the main tab that holds a sub-menu item
+     * @param subItem - Sub-menu item name
+     * @return String - Main tab name, or null if the item is not indexed
+     */
+    public String findMainTab(String subItem) {
+        for (Map.Entry<String, Map<String, String>> tab : tabs.entrySet()) {
+            if (tab.getValue().containsKey(subItem)) {
+                return tab.getKey();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the link target of a sub-menu item
+     * @param subItem - Sub-menu item name
+     * @return String - Absolute href, or null if the item is not indexed
+     */
+    public String getHref(String subItem) {
+        String mainTab = findMainTab(subItem);
+        return mainTab == null ? null : tabs.get(mainTab).get(subItem);
+    }
+    
+    /**
+     * Check if a sub-menu item is indexed under any main tab
+     * @param subItem - Sub-menu item name
+     * @return boolean - true if the item is indexed
+     */
+    public boolean contains(String subItem) {
+        return findMainTab(subItem) != null;
+    }
+    
+    /**
+     * Check if the menu could not be read
+     * @return boolean - true if no main tab was indexed
+     */
+    public boolean isEmpty() {
+        return tabs.isEmpty();
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    @SuppressWarnings("unchecked")
+    private static NavigationIndex extract(WebDriver driver, String[] mainTabs) {
+        long start = System.nanoTime();
+        try {
+            List<String> names = Arrays.stream(mainTabs).map(String::trim).collect(Collectors.toList());
+            Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(INDEX_SCRIPT, names);
+            Map<String, Map<String, String>> tabs = new LinkedHashMap<>();
+            result.forEach((tab, items) -> tabs.put(tab, new LinkedHashMap<>((Map<String, String>) items)));
+            int itemCount = tabs.values().stream().mapToInt(Map::size).sum();
+            System.out.println("Navigation index built: " + tabs.size() + " tabs, " + itemCount + " sub-items in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return new NavigationIndex(tabs, System.currentTimeMillis());
+        } catch (WebDriverException | ClassCastException e) {
+            System.out.println("Warning: Could not build navigation index: " + e.getMessage());
+            return new NavigationIndex(Map.of(), System.currentTimeMillis());
+        } finally {
+            TraceRecorder.span("page", "Navigation index", start, System.nanoTime());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static NavigationIndex loadFromDisk(String site) {
+        long ttlMillis = getTtlMillis();
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        Object stored = readDisk().get(site);
+        if (!(stored instanceof Map)) {
+            return null;
+        }
+        Map<String, Object> entry = (Map<String, Object>) stored;
+        long createdAt = ((Number) entry.get("createdAt")).longValue();
+        if (System.currentTimeMillis() - createdAt > ttlMillis) {
+            return null;
+        }
+        Map<String, Map<String, String>> tabs = new LinkedHashMap<>();
+        ((Map<String, Object>) entry.get("tabs")).forEach((tab, items) -> tabs.put(tab, new LinkedHashMap<>((Map<String, String>) items)));
+        System.out.println("Navigation index for " + site + " loaded from " + getFile());
+        return new NavigationIndex(tabs, createdAt);
+    }
+    
+    private static void saveToDisk(String site, NavigationIndex index) {
+        if (getTtlMillis() <= 0) {
+            return;
+        }
+        Map<String, Object> stored = readDisk();
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("createdAt", index.createdAt);
+        entry.put("tabs", index.tabs);
+        stored.put(site, entry);
+        writeDisk(stored);
+    }
+    
+    private static synchronized Map<String, Object> readDisk() {
+        Path file = getFile();
+        if (!Files.exists(file)) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return new LinkedHashMap<>(JsonUtils.parseMap(Files.readString(file, StandardCharsets.UTF_8)));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: Ignoring unreadable navigation index " + file + ": " + e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+    
+    private static synchronized void writeDisk(Map<String, Object> stored) {
+        Path file = getFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, JsonUtils.toJson(stored), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not save navigation index to " + file + ": " + e.getMessage());
+        }
+    }
+    
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return driver;
+    }
+    
+    /**
+     * Scheme and host of the current page; the menu is the same on every page of a site
+     */
+    private static String siteOf(WebDriver driver) {
+        try {
+            URI uri = URI.create(driver.getCurrentUrl());
+            return uri.getScheme() + "://" + uri.getHost();
+        } catch (IllegalArgumentException e) {
+            return String.valueOf(driver.getCurrentUrl());
+        }
+    }
+    
+    private static long getTtlMillis() {
+        return ConfigReader.getIntProperty("nav.map.ttl.minutes", 0) * 60_000L;
+    }
+    
+    private static Path getFile() {
+        return Paths.get(ConfigReader.getProperty("nav.map.file", "test-output/history/navigation.json"));
+    }
+}
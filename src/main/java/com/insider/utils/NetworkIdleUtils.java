@@ -0,0 +1,155 @@
+package com.insider.utils;
+
+import com.insider.reporting.TraceRecorder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Utility class for waiting until the page has no fetch/XHR requests in flight
+ * The page's fetch and XMLHttpRequest are instrumented in place, so the wait is a single async
+ * script with no polling from Java and no dependency on jQuery. {@link #install(WebDriver)} registers
+ * the instrumentation to run at document start when a session is leased, so requests issued before
+ * the first wait on a page are counted too
+ */
+public class NetworkIdleUtils {
+    private static final Map<WebDriver, Set<String>> installedWindows = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    // Counts requests in flight on window.__insiderNetwork; installed once per document
+    private static final String INSTRUMENT_SCRIPT =
+        "(function() {" +
+        "  if (window.__insiderNetwork) { return; }" +
+        "  const state = window.__insiderNetwork = {inflight: new Map(), seq: 0, lastEnd: {}};" +
+        "  function begin(url) { const id = ++state.seq; state.inflight.set(id, String(url)); return id; }" +
+        "  function end(id) {" +
+        "    const url = state.inflight.get(id);" +
+        "    if (state.inflight.delete(id)) { state.lastEnd = {url: url, time: Date.now()}; }" +
+        "  }" +
+        "  const originalFetch = window.fetch;" +
+        "  if (originalFetch) {" +
+        "    window.fetch = function(input) {" +
+        "      const id = begin(input && input.url ? input.url : input);" +
+        "      try { return originalFetch.apply(this, arguments).finally(() => end(id)); }" +
+        "      catch (e) { end(id); throw e; }" +
+        "    };" +
+        "  }" +
+        "  const open = XMLHttpRequest.prototype.open;" +
+        "  const send = XMLHttpRequest.prototype.send;" +
+        "  XMLHttpRequest.prototype.open = function(method, url) { this.__insiderUrl = url; return open.apply(this, arguments); };" +
+        "  XMLHttpRequest.prototype.send = function() {" +
+        "    const id = begin(this.__insiderUrl);" +
+        "    this.addEventListener('loadend', () => end(id));" +
+        "    try { return send.apply(this, arguments); } catch (e) { end(id); throw e; }" +
+        "  };" +
+        "})();";
+    
+    private static final String IDLE_SCRIPT =
+        "const done = arguments[arguments.length - 1];" +
+        "const quiet = arguments[0];" +
+        "const start = Date.now();" +
+        "const deadline = start + arguments[1];" +
+        "const ignored = arguments[2].map(pattern => new RegExp(pattern));" +
+        "const late = !window.__insiderNetwork;" +
+        INSTRUMENT_SCRIPT +
+        "const state = window.__insiderNetwork;" +
+        "const counts = url => !ignored.some(pattern => pattern.test(url));" +
+        "let idleSince = start;" +
+        "function check() {" +
+        "  const now = Date.now();" +
+        "  const pending = Array.from(state.inflight.values()).filter(counts);" +
+        "  if (pending.length) { idleSince = now; }" +
+        "  else if (state.lastEnd.time > idleSince && counts(state.lastEnd.url)) { idleSince = state.lastEnd.time; }" +
+        "  if ((!pending.length && now - idleSince >= quiet) || now >= deadline) {" +
+        "    done({idle: !pending.length, pending: pending.slice(0, 5), waited: now - start, late: late});" +
+        "    return;" +
+        "  }" +
+        "  setTimeout(check, 25);" +
+        "}" +
+        "check();";
+    
+    /**
+     * Instrument every document loaded in the session's current window from its first script on
+     * Call before navigating; registering again for the same window is a no-op
+     * @param driver - Raw (undecorated) session, switched to the window the test runs in
+     */
+    public static void install(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) {
+            return;
+        }
+        Set<String> windows;
+        synchronized (installedWindows) {
+            windows = installedWindows.computeIfAbsent(driver, key -> ConcurrentHashMap.newKeySet());
+        }
+        try {
+            if (windows.add(driver.getWindowHandle())) {
+                ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", INSTRUMENT_SCRIPT));
+            }
+        } catch (WebDriverException e) {
+            System.out.println("Warning: Could not register network instrumentation: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Wait for network idle using network.idle.quiet.ms, network.idle.timeout.ms and network.idle.ignore
+     * @param driver - WebDriver instance
+     * @return boolean - true if the page went idle, false if the timeout was reached first
+     */
+    public static boolean waitForNetworkIdle(WebDriver driver) {
+        return waitForNetworkIdle(driver,
+                ConfigReader.getIntProperty("network.idle.quiet.ms", 500),
+                ConfigReader.getIntProperty("network.idle.timeout.ms", 10000));
+    }
+    
+    /**
+     * Wait until no fetch/XHR requests have been in flight for a quiet window
+     * Requests matching network.idle.ignore (URL patterns with * wildcards) are not waited for
+     * @param driver - WebDriver instance
+     * @param quietMillis - How long the page must stay without requests in flight
+     * @param timeoutMillis - Upper bound of the wait
+     * @return boolean - true if the page went idle, false if the timeout was reached first
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean waitForNetworkIdle(WebDriver driver, long quietMillis, long timeoutMillis) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                    .executeAsyncScript(IDLE_SCRIPT, quietMillis, timeoutMillis, ignoredPatterns());
+            if (Boolean.TRUE.equals(result.get("late"))) {
+                // Requests sent before this wait were not seen; instrument later documents from the start
+                System.out.println("Warning: Network instrumentation was installed late on " + driver.getCurrentUrl());
+                install(driver);
+            }
+            boolean idle = Boolean.TRUE.equals(result.get("idle"));
+            System.out.println((idle ? "Network idle after " : "Warning: Network still busy after ") + result.get("waited") + " ms"
+                    + (idle ? "" : ", pending: " + result.get("pending")));
+            return idle;
+        } finally {
+            TraceRecorder.span("wait", "Network idle", start, System.nanoTime());
+        }
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    /**
+     * Translate network.idle.ignore URL patterns into JavaScript regular expressions
+     */
+    private static List<String> ignoredPatterns() {
+        return Arrays.stream(ConfigReader.getProperty("network.idle.ignore", "").split(","))
+                .map(String::trim)
+                .filter(glob -> !glob.isEmpty())
+                .map(glob -> "^" + glob.replaceAll("[\\\\^$.|?+()\\[\\]{}]", "\\\\$0").replace("*", ".*") + "$")
+                .collect(Collectors.toList());
+    }
+}
@@ -1,20 +1,34 @@
 package com.insider.utils;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Utility class for page-level operations
  */
 public class PageUtils {
     
+    // One wait per session, reused across calls
+    private static final Map<WebDriver, WebDriverWait> pageLoadWaits = Collections.synchronizedMap(new WeakHashMap<>());
+    
     /**
      * Wait for page to load completely
      * @param driver - WebDriver instance
      */
     public static void waitForPageLoad(WebDriver driver) {
-        WebDriverWait wait = new WebDriverWait(driver, java.time.Duration.ofSeconds(10));
+        waitForPageLoad(pageLoadWaits.computeIfAbsent(driver, AdaptiveWait::new));
+    }
+    
+    /**
+     * Wait for page to load completely using the caller's wait
+     * @param wait - WebDriverWait instance, e.g. the test's shared wait
+     */
+    public static void waitForPageLoad(WebDriverWait wait) {
         wait.until(webDriver -> ((JavascriptExecutor) webDriver)
                 .executeScript("return document.readyState").equals("complete"));
     }
@@ -37,13 +51,10 @@ public class PageUtils {
     
     /**
      * Wait for AJAX requests to complete
+     * Covers jQuery, fetch and plain XHR through the in-page network-idle wait
      * @param driver - WebDriver instance
      */
     public static void waitForAjaxToComplete(WebDriver driver) {
-        WebDriverWait wait = new WebDriverWait(driver, java.time.Duration.ofSeconds(10));
-        wait.until(webDriver -> {
-            JavascriptExecutor js = (JavascriptExecutor) webDriver;
-            return (Boolean) js.executeScript("return jQuery.active == 0");
-        });
+        NetworkIdleUtils.waitForNetworkIdle(driver);
     }
 }
@@ -0,0 +1,159 @@
+package com.insider.utils;
+
+import com.aventstack.extentreports.Status;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for capturing browser performance metrics after a navigation
+ * and checking them against per-page budgets
+ *
+ * Budgets are declared as perf.budget.<page>.<metric>=<limit>, for example
+ * perf.budget.careers.lcp=2500. Exceeded budgets log a warning, or fail the step when
+ * perf.budget.mode (or perf.budget.<page>.mode) is "fail"
+ */
+public class PerformanceUtils {
+    
+    // Navigation Timing, paint entries, LCP, resources and heap in a single round trip
+    private static final String METRICS_SCRIPT =
+        "const done = arguments[arguments.length - 1];" +
+        "const deadline = Date.now() + 10000;" +
+        "function collect(lcp) {" +
+        "  const nav = performance.getEntriesByType('navigation')[0] || {};" +
+        "  const fcp = performance.getEntriesByName('first-contentful-paint')[0];" +
+        "  const resources = performance.getEntriesByType('resource');" +
+        "  let transfer = 0;" +
+        "  resources.forEach(r => transfer += (r.transferSize || 0));" +
+        "  done({" +
+        "    ttfb: nav.responseStart, domContentLoaded: nav.domContentLoadedEventEnd, load: nav.loadEventEnd," +
+        "    fcp: fcp ? fcp.startTime : null, lcp: lcp, resources: resources.length," +
+        "    transferKb: (transfer + (nav.transferSize || 0)) / 1024," +
+        "    jsHeapMb: performance.memory ? performance.memory.usedJSHeapSize / 1048576 : null" +
+        "  });" +
+        "}" +
+        "function whenLoaded() {" +
+        "  if (document.readyState !== 'complete' && Date.now() < deadline) { setTimeout(whenLoaded, 50); return; }" +
+        "  let lcp = null;" +
+        "  try {" +
+        "    new PerformanceObserver(list => { const e = list.getEntries(); lcp = e[e.length - 1].startTime; })" +
+        "      .observe({type: 'largest-contentful-paint', buffered: true});" +
+        "  } catch (e) {}" +
+        // Buffered entries are delivered on a later task
+        "  setTimeout(() => collect(lcp), 50);" +
+        "}" +
+        "whenLoaded();";
+    
+    // DevTools Performance.getMetrics names and the metric names they are reported under
+    private static final Map<String, String> CDP_METRICS = Map.of(
+        "Nodes", "nodes",
+        "LayoutCount", "layouts",
+        "RecalcStyleCount", "styleRecalcs",
+        "ScriptDuration", "scriptMs",
+        "TaskDuration", "taskMs",
+        "JSHeapTotalSize", "jsHeapTotalMb");
+    
+    /**
+     * Capture performance metrics of the page currently loaded, log them to the report
+     * and check the page's budgets
+     * Disabled with perf.capture.enabled=false
+     * @param driver - WebDriver instance
+     * @param pageName - Page key used in the log and in perf.budget.<page>.* properties
+     * @return Map - Metric name to value (milliseconds, KB, MB or counts), empty when disabled
+     */
+    public static Map<String, Double> capturePagePerformance(WebDriver driver, String pageName) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        if (!ConfigReader.getBooleanProperty("perf.capture.enabled", true)) {
+            return metrics;
+        }
+        try {
+            collectPageMetrics(driver, metrics);
+            collectDevToolsMetrics(driver, metrics);
+        } catch (RuntimeException e) {
+            System.out.println("Warning: Could not capture performance metrics for " + pageName + ": " + e.getMessage());
+            return metrics;
+        }
+        
+        ExtentReportUtils.log(Status.INFO, "Page performance (" + pageName + "): " + describe(metrics));
+        checkBudgets(pageName, metrics);
+        return metrics;
+    }
+    
+    // ================================
+    // PRIVATE HELPER METHODS
+    // ================================
+    
+    @SuppressWarnings("unchecked")
+    private static void collectPageMetrics(WebDriver driver, Map<String, Double> metrics) {
+        Map<String, Object> values = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(METRICS_SCRIPT);
+        values.forEach((name, value) -> {
+            if (value instanceof Number) {
+                metrics.put(name, ((Number) value).doubleValue());
+            }
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static void collectDevToolsMetrics(WebDriver driver, Map<String, Double> metrics) {
+        if (!(driver instanceof HasCdp)) {
+            return;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        Map<String, Object> result;
+        try {
+            cdp.executeCdpCommand("Performance.enable", Map.of());
+            result = cdp.executeCdpCommand("Performance.getMetrics", Map.of());
+        } catch (RuntimeException e) {
+            System.out.println("Warning: DevTools performance metrics unavailable: " + e.getMessage());
+            return;
+        }
+        for (Map<String, Object> metric : (List<Map<String, Object>>) result.get("metrics")) {
+            String name = CDP_METRICS.get((String) metric.get("name"));
+            if (name != null) {
+                double value = ((Number) metric.get("value")).doubleValue();
+                if (name.endsWith("Ms")) {
+                    value *= 1000;
+                } else if (name.endsWith("Mb")) {
+                    value /= 1048576;
+                }
+                metrics.put(name, value);
+            }
+        }
+    }
+    
+    private static void checkBudgets(String pageName, Map<String, Double> metrics) {
+        List<String> violations = new ArrayList<>();
+        metrics.forEach((metric, value) -> {
+            String budget = ConfigReader.getProperty("perf.budget." + pageName + "." + metric);
+            if (budget != null && !budget.trim().isEmpty() && value > Double.parseDouble(budget.trim())) {
+                violations.add(metric + " " + format(value) + " > " + budget.trim());
+            }
+        });
+        if (violations.isEmpty()) {
+            return;
+        }
+        String message = "Performance budget exceeded on " + pageName + ": " + String.join(", ", violations);
+        String mode = ConfigReader.getProperty("perf.budget." + pageName + ".mode",
+                ConfigReader.getProperty("perf.budget.mode", "warn"));
+        if ("fail".equalsIgnoreCase(mode.trim())) {
+            ExtentReportUtils.log(Status.FAIL, message);
+            throw new AssertionError(message);
+        }
+        ExtentReportUtils.log(Status.WARNING, message);
+    }
+    
+    private static String describe(Map<String, Double> metrics) {
+        List<String> parts = new ArrayList<>();
+        metrics.forEach((name, value) -> parts.add(name + " " + format(value)));
+        return String.join(", ", parts);
+    }
+    
+    private static String format(double value) {
+        return value == Math.rint(value) || value >= 100 ? String.valueOf(Math.round(value)) : String.format("%.1f", value);
+    }
+}
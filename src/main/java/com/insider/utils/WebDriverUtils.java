@@ -1,10 +1,13 @@
 package com.insider.utils;
 
+import com.insider.driver.WindowWatcher;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.By;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.util.Map;
+
 /**
  * Main utility class that delegates to specialized utility classes
  * This serves as a facade for all WebDriver-related operations
@@ -39,6 +42,23 @@ public class WebDriverUtils {
         return ElementUtils.findElementWithFallback(wait, primaryLocator, textLocator, hrefLocator, elementName);
     }
     
+    public static NavigationIndex getNavigationIndex(WebDriver driver, String[] mainTabs) {
+        return NavigationIndex.get(driver, mainTabs);
+    }
+    
+    public static void invalidateNavigationIndex(WebDriver driver) {
+        NavigationIndex.invalidate(driver);
+    }
+    
+    public static WebElement findCachedElement(WebDriverWait wait, WebElement root, String page, String elementName,
+                                               Map<String, By> strategies, String clickableStrategy, String lastResortStrategy) {
+        return ElementUtils.findCachedElement(wait, root, page, elementName, strategies, clickableStrategy, lastResortStrategy);
+    }
+    
+    public static WebElement findFirstMatching(WebDriverWait wait, Map<String, By> strategies, boolean firstClickable, String elementName) {
+        return ElementUtils.findFirstMatching(wait, strategies, firstClickable, elementName);
+    }
+    
     // ================================
     // PAGE OPERATIONS
     // ================================
@@ -47,6 +67,10 @@ public class WebDriverUtils {
         PageUtils.waitForPageLoad(driver);
     }
     
+    public static void waitForPageLoad(WebDriverWait wait) {
+        PageUtils.waitForPageLoad(wait);
+    }
+    
     public static void waitForDocumentReady(WebDriver driver) {
         PageUtils.waitForDocumentReady(driver);
     }
@@ -55,6 +79,30 @@ public class WebDriverUtils {
         PageUtils.waitForAjaxToComplete(driver);
     }
     
+    public static boolean waitForNetworkIdle(WebDriver driver) {
+        return NetworkIdleUtils.waitForNetworkIdle(driver);
+    }
+    
+    public static boolean waitForNetworkIdle(WebDriver driver, long quietMillis, long timeoutMillis) {
+        return NetworkIdleUtils.waitForNetworkIdle(driver, quietMillis, timeoutMillis);
+    }
+    
+    public static boolean waitForDomStable(WebDriver driver, String cssSelector) {
+        return DomStabilityUtils.waitForDomStable(driver, cssSelector);
+    }
+    
+    public static boolean waitForDomStable(WebDriver driver, String cssSelector, long quietMillis, long timeoutMillis) {
+        return DomStabilityUtils.waitForDomStable(driver, cssSelector, quietMillis, timeoutMillis);
+    }
+    
+    public static WindowWatcher watchForNewWindow(WebDriver driver) {
+        return WindowWatcher.start(driver);
+    }
+    
+    public static Map<String, Double> capturePagePerformance(WebDriver driver, String pageName) {
+        return PerformanceUtils.capturePagePerformance(driver, pageName);
+    }
+    
     // ================================
     // OVERLAY OPERATIONS
     // ================================
@@ -0,0 +1,118 @@
+package com.insider.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LatencyHistogramTest {
+    
+    @Test(description = "Values below 16 us have their own bucket")
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 0; micros < 16; micros++) {
+            histogram.record(micros * 1000L);
+        }
+        Assert.assertEquals(histogram.getPercentileMicros(50), 7);
+        Assert.assertEquals(histogram.getPercentileMicros(100), 15);
+    }
+    
+    @Test(description = "Values sharing a log-linear bucket report its upper bound")
+    public void testBucketBoundaries() {
+        // 32 and 33 us share a bucket; 34 us starts the next one
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(32_000);
+        histogram.record(100_000);
+        Assert.assertEquals(histogram.getPercentileMicros(50), 33);
+        
+        LatencyHistogram nextBucket = new LatencyHistogram();
+        nextBucket.record(34_000);
+        nextBucket.record(100_000);
+        Assert.assertEquals(nextBucket.getPercentileMicros(50), 35);
+    }
+    
+    @Test(description = "Percentiles stay within one sub-bucket of the true value")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000L);
+        }
+        assertWithinBucket(histogram.getPercentileMicros(50), 50_000);
+        assertWithinBucket(histogram.getPercentileMicros(90), 90_000);
+        assertWithinBucket(histogram.getPercentileMicros(99), 99_000);
+        Assert.assertEquals(histogram.getPercentileMicros(100), 100_000);
+        Assert.assertEquals(histogram.getMaxMicros(), 100_000);
+        Assert.assertEquals(histogram.getMeanMicros(), 50_500);
+        Assert.assertEquals(histogram.getCount(), 100);
+    }
+    
+    @Test(description = "An empty histogram reports zeros")
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMeanMicros(), 0);
+        Assert.assertEquals(histogram.getPercentileMicros(99), 0);
+    }
+    
+    @Test(description = "Merging equals recording every sample into one histogram")
+    public void testMerge() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (int millis = 1; millis <= 50; millis++) {
+            first.record(millis * 1_000_000L);
+            second.record(millis * 3_000_000L);
+            all.record(millis * 1_000_000L);
+            all.record(millis * 3_000_000L);
+        }
+        first.merge(second);
+        Assert.assertEquals(first.getCount(), all.getCount());
+        Assert.assertEquals(first.getMeanMicros(), all.getMeanMicros());
+        Assert.assertEquals(first.getMaxMicros(), all.getMaxMicros());
+        Assert.assertEquals(first.getPercentileMicros(50), all.getPercentileMicros(50));
+        Assert.assertEquals(first.getPercentileMicros(99), all.getPercentileMicros(99));
+    }
+    
+    @Test(description = "An exported histogram round-trips without losing its total")
+    public void testSerializeRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.record(2_000);
+        LatencyHistogram restored = LatencyHistogram.fromMap(histogram.toMap());
+        Assert.assertEquals(restored.toMap(), histogram.toMap());
+        
+        // A total rebuilt from the rounded mean (1 us) would give (2 + 3) / 3 = 1 here
+        LatencyHistogram later = new LatencyHistogram();
+        later.record(3_000);
+        restored.merge(later);
+        Assert.assertEquals(restored.getMeanMicros(), 2);
+    }
+    
+    @Test(description = "An export without its total is rejected", expectedExceptions = IllegalArgumentException.class)
+    public void testFromMapRequiresTotal() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        Map<String, Object> exported = new HashMap<>(histogram.toMap());
+        exported.remove("totalMicros");
+        LatencyHistogram.fromMap(exported);
+    }
+    
+    @Test(description = "Decay scales bucket counts down and drops rare samples")
+    public void testDecay() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10_000);
+        for (int i = 0; i < 4; i++) {
+            histogram.record(5_000);
+        }
+        LatencyHistogram decayed = histogram.decayed(0.5);
+        Assert.assertEquals(decayed.getCount(), 2);
+        Assert.assertEquals(decayed.getMaxMicros(), 5);
+        Assert.assertEquals(decayed.getPercentileMicros(100), 5);
+    }
+    
+    private static void assertWithinBucket(long actualMicros, long expectedMicros) {
+        Assert.assertTrue(actualMicros >= expectedMicros && actualMicros <= expectedMicros + expectedMicros / 16,
+                "Expected " + actualMicros + " us to be within 1/16 above " + expectedMicros + " us");
+    }
+}
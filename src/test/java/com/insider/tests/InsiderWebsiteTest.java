@@ -18,14 +18,14 @@ public class InsiderWebsiteTest extends BaseTest {
         
         // Navigate to Insider home page
         executeStep("Navigating to Insider home page", () -> {
-            HomePage homePage = new HomePage(driver, wait);
+            HomePage homePage = new HomePage(getDriver(), getWait());
             homePage.navigateToHomePage();
             takeScreenshot("Home page loaded");
         });
         
         // Verify home page is opened
         executeAssertion("Verifying home page is opened", () -> {
-            HomePage homePage = new HomePage(driver, wait);
+            HomePage homePage = new HomePage(getDriver(), getWait());
             boolean isOpened = homePage.isHomePageOpened();
             Assert.assertTrue(isOpened, "Insider home page should be opened successfully");
         }, "Insider home page should be opened successfully");
@@ -40,21 +40,21 @@ public class InsiderWebsiteTest extends BaseTest {
         
         // Navigate to home page
         executeStep("Navigating to home page", () -> {
-            HomePage homePage = new HomePage(driver, wait);
+            HomePage homePage = new HomePage(getDriver(), getWait());
             homePage.navigateToHomePage();
             takeScreenshot("Home page loaded");
         });
         
         // Navigate to Careers page via Company menu
         executeStep("Navigating to Careers page via Company menu", () -> {
-            GlobalNavigationBar navigationBar = new GlobalNavigationBar(driver, wait);
+            GlobalNavigationBar navigationBar = new GlobalNavigationBar(getDriver(), getWait());
             navigationBar.navigateTo("Careers");
             takeScreenshot("Careers page loaded");
         });
         
         // Verify Careers page is opened
         executeAssertion("Verifying Careers page is opened", () -> {
-            CareersPage careersPage = new CareersPage(driver, wait);
+            CareersPage careersPage = new CareersPage(getDriver(), getWait());
             boolean isOpened = careersPage.isCareersPageOpened();
             Assert.assertTrue(isOpened, "Careers page should be opened successfully");
         }, "Careers page should be opened successfully");
@@ -63,19 +63,19 @@ public class InsiderWebsiteTest extends BaseTest {
         logInfo("Verifying all required sections are visible");
         
         executeAssertion("Verifying Locations section is visible", () -> {
-            CareersPage careersPage = new CareersPage(driver, wait);
+            CareersPage careersPage = new CareersPage(getDriver(), getWait());
             boolean locationsVisible = careersPage.isLocationsSectionVisible();
             Assert.assertTrue(locationsVisible, "Locations section should be visible on Careers page");
         }, "Locations section should be visible on Careers page");
         
         executeAssertion("Verifying Teams section is visible", () -> {
-            CareersPage careersPage = new CareersPage(driver, wait);
+            CareersPage careersPage = new CareersPage(getDriver(), getWait());
             boolean teamsVisible = careersPage.isTeamsSectionVisible();
             Assert.assertTrue(teamsVisible, "Teams section should be visible on Careers page");
         }, "Teams section should be visible on Careers page");
         
         executeAssertion("Verifying Life at Insider section is visible", () -> {
-            CareersPage careersPage = new CareersPage(driver, wait);
+            CareersPage careersPage = new CareersPage(getDriver(), getWait());
             boolean lifeAtInsiderVisible = careersPage.isLifeAtInsiderSectionVisible();
             Assert.assertTrue(lifeAtInsiderVisible, "Life at Insider section should be visible on Careers page");
         }, "Life at Insider section should be visible on Careers page");
@@ -89,7 +89,7 @@ public class InsiderWebsiteTest extends BaseTest {
         // Start test with ExtentReports
         startTest("Complete QA Jobs Workflow Test", "Complete QA jobs workflow - filters, validation, and redirect", "End-to-End Test");
         
-        QAJobsPage qaJobsPage = new QAJobsPage(driver, wait);
+        QAJobsPage qaJobsPage = new QAJobsPage(getDriver(), getWait());
         
         // Step 1: Navigate to QA jobs page
         executeStep("Step 1: Navigating to QA jobs page", () -> {
@@ -199,25 +199,9 @@ public class InsiderWebsiteTest extends BaseTest {
             qaJobsPage.clickViewRoleButton(jobElements.get(0));
             takeScreenshot("View Role button clicked");
             
-            // Wait a bit for new tab to open
-            try {
-                Thread.sleep(3000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            
-            // Switch to new tab if opened
-            String originalWindow = driver.getWindowHandle();
-            for (String windowHandle : driver.getWindowHandles()) {
-                if (!windowHandle.equals(originalWindow)) {
-                    driver.switchTo().window(windowHandle);
-                    logInfo("Switched to new tab: " + driver.getCurrentUrl());
-                    break;
-                }
-            }
-            
-            // Verify redirect to Lever application form
+            // Verify redirect to Lever application form; switches to the new tab as soon as it commits
             boolean isRedirected = qaJobsPage.isRedirectedToLeverApplication();
+            logInfo("Lever application URL: " + getDriver().getCurrentUrl());
             Assert.assertTrue(isRedirected, "Should be redirected to Lever application form (jobs.lever.co domain)");
             logPass("Successfully redirected to Lever application form");
             takeScreenshot("Redirected to Lever application");